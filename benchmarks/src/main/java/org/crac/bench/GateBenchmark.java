@@ -0,0 +1,107 @@
+// Copyright 2026 Azul Systems, Inc.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright notice,
+// this list of conditions and the following disclaimer in the documentation
+// and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package org.crac.bench;
+
+import org.crac.concurrent.CheckpointGate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Cost of passing an open {@link CheckpointGate}, compared with no gate and with a read lock,
+ * the usual alternative for excluding a checkpoint. The gate should stay close to the baseline
+ * as threads are added, while the read lock contends on a shared counter.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GateBenchmark {
+    private final CheckpointGate gate = new CheckpointGate();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private int work;
+
+    @Benchmark
+    @Threads(1)
+    public int baselineSingleThreaded() {
+        return work;
+    }
+
+    @Benchmark
+    @Threads(1)
+    public int gateSingleThreaded() throws InterruptedException {
+        gate.enter();
+        try {
+            return work;
+        } finally {
+            gate.exit();
+        }
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public int gateMultiThreaded() throws InterruptedException {
+        gate.enter();
+        try {
+            return work;
+        } finally {
+            gate.exit();
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public int readLockSingleThreaded() {
+        lock.readLock().lock();
+        try {
+            return work;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public int readLockMultiThreaded() {
+        lock.readLock().lock();
+        try {
+            return work;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
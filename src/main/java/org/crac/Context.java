@@ -53,7 +53,7 @@ public abstract class Context<R extends Resource> implements Resource {
      * @return True if the JDK implements CRaC functionality.
      */
     public static boolean isImplemented() {
-        return Proxy.instance != null;
+        return Proxy.getInstance() != null;
     }
 
     /** Creates a {@code Context}.
@@ -61,9 +61,10 @@ public class Core {
     @Deprecated
     public static void checkpointRestore() throws
             CheckpointException, RestoreException {
-        if (Proxy.instance == null) {
+        Proxy proxy = Proxy.getInstance();
+        if (proxy == null) {
             throw new UnsupportedOperationException();
         }
-        Proxy.instance.checkpointRestore();
+        proxy.checkpointRestore();
     }
 }
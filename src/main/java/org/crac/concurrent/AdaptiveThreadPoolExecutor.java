@@ -0,0 +1,266 @@
+// Copyright 2026 Azul Systems, Inc.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright notice,
+// this list of conditions and the following disclaimer in the documentation
+// and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+package org.crac.concurrent;
+
+import org.crac.Context;
+import org.crac.Resource;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * A {@code ThreadPoolExecutor} sized by the number of available processors, which is read again after restore.
+ *
+ * <p>An image may be restored on a machine with a different number of processors than the one it was created on.
+ * The pool sizes are given as functions of the number of processors, for example a pool with a thread per
+ * processor for CPU-bound tasks:
+ * <pre>{@code
+ * ExecutorService executor = new AdaptiveThreadPoolExecutor(n -> n, n -> n, 0, TimeUnit.SECONDS,
+ *         new LinkedBlockingQueue<>());
+ * }</pre>
+ *
+ * <p>The executor registers itself in the global {@code Context}. On checkpoint notification it pauses: workers wait
+ * before starting further tasks, and the notification waits until running tasks complete, at most the checkpoint
+ * timeout if one is set. Tasks may still be submitted and are queued. On restore notification the executor
+ * applies the sizing functions to {@link Runtime#availableProcessors()}, which accounts for container CPU quotas
+ * on JDKs supporting them, and resumes.
+ */
+public class AdaptiveThreadPoolExecutor extends ThreadPoolExecutor {
+    private final IntUnaryOperator corePoolSizing;
+    private final IntUnaryOperator maximumPoolSizing;
+
+    private volatile boolean paused;
+    private volatile long checkpointTimeoutNanos = Long.MAX_VALUE;
+
+    // Tasks between beforeExecute and afterExecute
+    private final AtomicInteger running = new AtomicInteger();
+
+    private final ReentrantLock pauseLock = new ReentrantLock();
+    // Signalled when the last running task completes while paused, and on resume
+    private final Condition pauseChanged = pauseLock.newCondition();
+
+    // Kept reachable by the executor, the global Context holds it weakly
+    private final Resource resource = new Resource() {
+        @Override
+        public void beforeCheckpoint(Context<? extends Resource> context) throws Exception {
+            pause();
+        }
+
+        @Override
+        public void afterRestore(Context<? extends Resource> context) {
+            try {
+                resize();
+            } finally {
+                resume();
+            }
+        }
+    };
+
+    /**
+     * Creates an {@code AdaptiveThreadPoolExecutor} with the default thread factory
+     * and rejected execution handler.
+     *
+     * @param corePoolSize function from the number of available processors to the core pool size
+     * @param maximumPoolSize function from the number of available processors to the maximum pool size
+     * @param keepAliveTime when the number of threads is greater than the core, the maximum time that excess
+     *                      idle threads will wait for new tasks before terminating
+     * @param unit the time unit for the {@code keepAliveTime} argument
+     * @param workQueue the queue to use for holding tasks before they are executed
+     * @throws IllegalArgumentException if the sizes for the current number of processors are invalid
+     *                                  for a {@code ThreadPoolExecutor}
+     * @throws NullPointerException if any argument is {@code null}
+     */
+    public AdaptiveThreadPoolExecutor(IntUnaryOperator corePoolSize, IntUnaryOperator maximumPoolSize,
+                                      long keepAliveTime, TimeUnit unit, BlockingQueue<Runnable> workQueue) {
+        this(corePoolSize, maximumPoolSize, keepAliveTime, unit, workQueue, Executors.defaultThreadFactory());
+    }
+
+    /**
+     * Creates an {@code AdaptiveThreadPoolExecutor} with the default rejected execution handler.
+     *
+     * @param corePoolSize function from the number of available processors to the core pool size
+     * @param maximumPoolSize function from the number of available processors to the maximum pool size
+     * @param keepAliveTime when the number of threads is greater than the core, the maximum time that excess
+     *                      idle threads will wait for new tasks before terminating
+     * @param unit the time unit for the {@code keepAliveTime} argument
+     * @param workQueue the queue to use for holding tasks before they are executed
+     * @param threadFactory the factory to use when the executor creates a new thread
+     * @throws IllegalArgumentException if the sizes for the current number of processors are invalid
+     *                                  for a {@code ThreadPoolExecutor}
+     * @throws NullPointerException if any argument is {@code null}
+     */
+    public AdaptiveThreadPoolExecutor(IntUnaryOperator corePoolSize, IntUnaryOperator maximumPoolSize,
+                                      long keepAliveTime, TimeUnit unit, BlockingQueue<Runnable> workQueue,
+                                      ThreadFactory threadFactory) {
+        super(corePoolSize.applyAsInt(Runtime.getRuntime().availableProcessors()),
+                maximumPoolSize.applyAsInt(Runtime.getRuntime().availableProcessors()),
+                keepAliveTime, unit, workQueue, threadFactory);
+        this.corePoolSizing = corePoolSize;
+        this.maximumPoolSizing = maximumPoolSize;
+        Context.getGlobalContext().register(resource);
+    }
+
+    Resource getResource() {
+        return resource;
+    }
+
+    /**
+     * Sets the maximum time the checkpoint notification waits for running tasks.
+     * If they do not complete in time, the notification fails with a {@link TimeoutException}.
+     * By default, there is no timeout.
+     *
+     * @param timeout the maximum time to wait
+     * @param unit the time unit of {@code timeout}
+     * @throws IllegalArgumentException if {@code timeout} is negative
+     */
+    public void setCheckpointTimeout(long timeout, TimeUnit unit) {
+        if (timeout < 0) {
+            throw new IllegalArgumentException("timeout must not be negative: " + timeout);
+        }
+        checkpointTimeoutNanos = unit.toNanos(timeout);
+    }
+
+    /**
+     * Returns whether the executor is paused for a checkpoint.
+     *
+     * @return true if paused.
+     */
+    public boolean isPaused() {
+        return paused;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Overrides must call {@code super.beforeExecute}, which waits while the executor is paused.
+     */
+    @Override
+    protected void beforeExecute(Thread t, Runnable r) {
+        super.beforeExecute(t, r);
+        // pause() sets paused before reading running, so either it waits for this task, or the task sees the pause
+        running.incrementAndGet();
+        while (paused) {
+            taskCompleted();
+            boolean resumed = awaitResume();
+            running.incrementAndGet();
+            if (!resumed) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Overrides must call {@code super.afterExecute}, which lets a checkpoint proceed once running tasks complete.
+     */
+    @Override
+    protected void afterExecute(Runnable r, Throwable t) {
+        taskCompleted();
+        super.afterExecute(r, t);
+    }
+
+    private void taskCompleted() {
+        if (running.decrementAndGet() == 0 && paused) {
+            pauseLock.lock();
+            try {
+                pauseChanged.signalAll();
+            } finally {
+                pauseLock.unlock();
+            }
+        }
+    }
+
+    // Returns false if interrupted while waiting
+    private boolean awaitResume() {
+        pauseLock.lock();
+        try {
+            while (paused) {
+                try {
+                    pauseChanged.await();
+                } catch (InterruptedException e) {
+                    // Interrupted by shutdownNow(), or the task should see the interrupt
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            pauseLock.unlock();
+        }
+    }
+
+    private void pause() throws InterruptedException, TimeoutException {
+        long timeout = checkpointTimeoutNanos;
+        long deadline = System.nanoTime() + timeout;
+        pauseLock.lock();
+        try {
+            paused = true;
+            for (int count; (count = running.get()) > 0; ) {
+                if (timeout == Long.MAX_VALUE) {
+                    pauseChanged.await();
+                    continue;
+                }
+                long left = deadline - System.nanoTime();
+                if (left <= 0) {
+                    throw new TimeoutException(count + " tasks still running after "
+                            + TimeUnit.NANOSECONDS.toMillis(timeout) + " ms");
+                }
+                pauseChanged.awaitNanos(left);
+            }
+        } finally {
+            pauseLock.unlock();
+        }
+    }
+
+    private void resume() {
+        pauseLock.lock();
+        try {
+            paused = false;
+            pauseChanged.signalAll();
+        } finally {
+            pauseLock.unlock();
+        }
+    }
+
+    private void resize() {
+        int processors = Runtime.getRuntime().availableProcessors();
+        int core = corePoolSizing.applyAsInt(processors);
+        int max = maximumPoolSizing.applyAsInt(processors);
+        // Core must not exceed maximum at any moment
+        if (max >= getCorePoolSize()) {
+            setMaximumPoolSize(max);
+            setCorePoolSize(core);
+        } else {
+            setCorePoolSize(core);
+            setMaximumPoolSize(max);
+        }
+    }
+}
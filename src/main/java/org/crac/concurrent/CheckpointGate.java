@@ -0,0 +1,172 @@
+// Copyright 2026 Azul Systems, Inc.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright notice,
+// this list of conditions and the following disclaimer in the documentation
+// and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+package org.crac.concurrent;
+
+import org.crac.Context;
+import org.crac.Resource;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A gate for in-flight work that is closed during checkpoint.
+ *
+ * <p>Work is wrapped by {@link #enter()} and {@link #exit()}:
+ * <pre>{@code
+ * gate.enter();
+ * try {
+ *     handle(request);
+ * } finally {
+ *     gate.exit();
+ * }
+ * }</pre>
+ * On checkpoint notification the gate closes, so {@code enter()} blocks until restore, and the notification
+ * waits until all work that entered before exits. If the work does not drain within the drain timeout,
+ * the notification fails with a {@link TimeoutException}. On restore notification the gate opens and
+ * releases the blocked callers.
+ *
+ * <p>While the gate is open, {@code enter()} and {@code exit()} increment striped counters, like
+ * {@link LongAdder}, and read a volatile flag, so threads entering concurrently do not write
+ * to a shared memory location.
+ */
+public class CheckpointGate implements Resource {
+    private final LongAdder enters = new LongAdder();
+    private final LongAdder exits = new LongAdder();
+    private final long drainTimeoutNanos;
+
+    private volatile boolean closed;
+
+    // Waited on by blocked callers until restore, and by the checkpoint until work drains
+    private final Object lock = new Object();
+
+    /**
+     * Creates a {@code CheckpointGate} that waits for in-flight work without a timeout.
+     */
+    public CheckpointGate() {
+        this(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Creates a {@code CheckpointGate} that waits for in-flight work at most {@code drainTimeout}.
+     *
+     * @param drainTimeout maximum time to wait for in-flight work on checkpoint
+     * @param unit {@code TimeUnit} of {@code drainTimeout}
+     * @throws IllegalArgumentException if {@code drainTimeout} is negative
+     */
+    public CheckpointGate(long drainTimeout, TimeUnit unit) {
+        if (drainTimeout < 0) {
+            throw new IllegalArgumentException("drainTimeout must not be negative: " + drainTimeout);
+        }
+        drainTimeoutNanos = unit.toNanos(drainTimeout);
+    }
+
+    /**
+     * Enters the gate, waiting until restore if the gate is closed.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void enter() throws InterruptedException {
+        while (!tryEnter()) {
+            synchronized (lock) {
+                while (closed) {
+                    lock.wait();
+                }
+            }
+        }
+    }
+
+    /**
+     * Enters the gate if it is open.
+     *
+     * @return true if entered, false if the gate is closed.
+     */
+    public boolean tryEnter() {
+        enters.increment();
+        // The checkpoint closes the gate before counting, so either it counts
+        // this entry, or this thread sees the gate closed
+        if (closed) {
+            exit();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Exits the gate. Must be called once for each successful {@link #enter()} or {@link #tryEnter()}.
+     */
+    public void exit() {
+        exits.increment();
+        if (closed) {
+            synchronized (lock) {
+                lock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of callers that entered the gate and did not exit yet.
+     * The value is a snapshot that may be outdated by concurrent callers.
+     *
+     * @return the number of callers in the gate.
+     */
+    public long getInFlight() {
+        // An exit is counted after its enter, so reading exits first never yields a negative count
+        long exited = exits.sum();
+        return enters.sum() - exited;
+    }
+
+    /**
+     * Returns whether the gate is closed for a checkpoint.
+     *
+     * @return true if the gate is closed.
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public void beforeCheckpoint(Context<? extends Resource> context) throws Exception {
+        closed = true;
+        long deadline = System.nanoTime() + drainTimeoutNanos;
+        synchronized (lock) {
+            for (long inFlight; (inFlight = getInFlight()) > 0; ) {
+                long left = drainTimeoutNanos == Long.MAX_VALUE ? Long.MAX_VALUE : deadline - System.nanoTime();
+                if (left <= 0) {
+                    throw new TimeoutException(inFlight + " callers still in the gate after "
+                            + TimeUnit.NANOSECONDS.toMillis(drainTimeoutNanos) + " ms");
+                }
+                TimeUnit.NANOSECONDS.timedWait(lock, left);
+            }
+        }
+    }
+
+    @Override
+    public void afterRestore(Context<? extends Resource> context) {
+        synchronized (lock) {
+            closed = false;
+            lock.notifyAll();
+        }
+    }
+}
@@ -0,0 +1,263 @@
+// Copyright 2026 Azul Systems, Inc.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright notice,
+// this list of conditions and the following disclaimer in the documentation
+// and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+package org.crac.concurrent;
+
+import org.crac.Context;
+import org.crac.Resource;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RunnableScheduledFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A {@code ScheduledThreadPoolExecutor} that keeps delays of scheduled tasks across checkpoint and restore.
+ *
+ * <p>After restore, clocks have moved by the time between checkpoint and restore, so tasks scheduled before
+ * the checkpoint would all become due at once. This executor registers itself in the global {@code Context}.
+ * On checkpoint notification it records the remaining delay of each scheduled task and holds the tasks.
+ * On restore notification each task is scheduled again after its remaining delay, plus a random jitter
+ * of up to the configured maximum, which spreads tasks that were due at about the same time.
+ * Tasks at a fixed rate keep their period relative to the new schedule, and tasks with a fixed delay
+ * run with their delay after the rescheduled run.
+ *
+ * <p>Tasks scheduled between the checkpoint and restore notifications are held as well.
+ */
+public class RestoreSafeScheduledThreadPoolExecutor extends ScheduledThreadPoolExecutor {
+    // Delay of held tasks, far enough to never come, but not overflowing when added to
+    private static final long HELD = Long.MAX_VALUE >> 2;
+
+    private final long maxJitterNanos;
+
+    // Guarded by this
+    private boolean holding;
+
+    // Kept reachable by the executor, the global Context holds it weakly
+    private final Resource resource = new Resource() {
+        @Override
+        public void beforeCheckpoint(Context<? extends Resource> context) {
+            hold();
+        }
+
+        @Override
+        public void afterRestore(Context<? extends Resource> context) {
+            release();
+        }
+    };
+
+    /**
+     * Creates a {@code RestoreSafeScheduledThreadPoolExecutor} with no jitter.
+     *
+     * @param corePoolSize the number of threads to keep in the pool
+     * @throws IllegalArgumentException if {@code corePoolSize < 0}
+     */
+    public RestoreSafeScheduledThreadPoolExecutor(int corePoolSize) {
+        this(corePoolSize, Executors.defaultThreadFactory(), 0, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Creates a {@code RestoreSafeScheduledThreadPoolExecutor}.
+     *
+     * @param corePoolSize the number of threads to keep in the pool
+     * @param threadFactory the factory to use when the executor creates a new thread
+     * @param maxJitter the maximum random delay added to each scheduled task on restore
+     * @param unit the time unit of {@code maxJitter}
+     * @throws IllegalArgumentException if {@code corePoolSize < 0} or {@code maxJitter < 0}
+     * @throws NullPointerException if {@code threadFactory} or {@code unit} is {@code null}
+     */
+    public RestoreSafeScheduledThreadPoolExecutor(int corePoolSize, ThreadFactory threadFactory,
+                                                  long maxJitter, TimeUnit unit) {
+        super(corePoolSize, threadFactory);
+        if (maxJitter < 0) {
+            throw new IllegalArgumentException("maxJitter must not be negative: " + maxJitter);
+        }
+        maxJitterNanos = unit.toNanos(maxJitter);
+        Context.getGlobalContext().register(resource);
+    }
+
+    Resource getResource() {
+        return resource;
+    }
+
+    @Override
+    protected <V> RunnableScheduledFuture<V> decorateTask(Runnable runnable, RunnableScheduledFuture<V> task) {
+        return rebased(task);
+    }
+
+    @Override
+    protected <V> RunnableScheduledFuture<V> decorateTask(Callable<V> callable, RunnableScheduledFuture<V> task) {
+        return rebased(task);
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+        ScheduledFuture<?> future = super.scheduleWithFixedDelay(command, initialDelay, delay, unit);
+        ((RebasedTask<?>) future).fixedDelay = true;
+        return future;
+    }
+
+    private synchronized <V> RunnableScheduledFuture<V> rebased(RunnableScheduledFuture<V> task) {
+        RebasedTask<V> rebased = new RebasedTask<>(task);
+        if (holding) {
+            rebased.hold();
+        }
+        return rebased;
+    }
+
+    private synchronized void hold() {
+        holding = true;
+        reschedule(false);
+    }
+
+    private synchronized void release() {
+        holding = false;
+        reschedule(true);
+    }
+
+    // The queue is ordered by delay, so a task is removed before its delay changes, and added back
+    private void reschedule(boolean release) {
+        BlockingQueue<Runnable> queue = getQueue();
+        for (Object o : queue.toArray()) {
+            RebasedTask<?> task = (RebasedTask<?>) o;
+            if (queue.remove(task)) {
+                if (release) {
+                    long jitter = maxJitterNanos > 0 ? ThreadLocalRandom.current().nextLong(maxJitterNanos + 1) : 0;
+                    task.release(jitter);
+                } else {
+                    task.hold();
+                }
+                queue.add(task);
+            }
+        }
+    }
+
+    // A periodic task running during hold() is not in the queue; it is added back by the underlying task
+    // when the run completes, so it is held here
+    private synchronized void holdIfRequeued(RebasedTask<?> task) {
+        if (holding && !task.isDone()) {
+            BlockingQueue<Runnable> queue = getQueue();
+            if (queue.remove(task)) {
+                task.hold();
+                queue.add(task);
+            }
+        }
+    }
+
+    private class RebasedTask<V> implements RunnableScheduledFuture<V> {
+        private final RunnableScheduledFuture<V> task;
+
+        // Added to the delay of the task. The next run of a task at a fixed rate is computed by the underlying
+        // task from its original schedule, so the shift applies to all runs. The next run of a task with a fixed
+        // delay is computed from the end of the run, so the shift applies to the pending run only.
+        private volatile long shift;
+        private volatile boolean held;
+        // Set by scheduleWithFixedDelay once the task is scheduled
+        volatile boolean fixedDelay;
+        // Delay remaining when the task was held
+        private long remaining;
+
+        RebasedTask(RunnableScheduledFuture<V> task) {
+            this.task = task;
+        }
+
+        void hold() {
+            if (!held) {
+                remaining = getDelay(TimeUnit.NANOSECONDS);
+                held = true;
+            }
+        }
+
+        void release(long jitter) {
+            if (held) {
+                shift = remaining + jitter - task.getDelay(TimeUnit.NANOSECONDS);
+                held = false;
+            }
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            long delay = held ? HELD : task.getDelay(TimeUnit.NANOSECONDS) + shift;
+            return unit.convert(delay, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+
+        @Override
+        public boolean isPeriodic() {
+            return task.isPeriodic();
+        }
+
+        @Override
+        public void run() {
+            if (fixedDelay) {
+                shift = 0;
+            }
+            task.run();
+            if (task.isPeriodic()) {
+                holdIfRequeued(this);
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = task.cancel(mayInterruptIfRunning);
+            // The task removes itself from the queue, but the queue holds this wrapper
+            if (cancelled && getRemoveOnCancelPolicy()) {
+                remove(this);
+            }
+            return cancelled;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return task.isCancelled();
+        }
+
+        @Override
+        public boolean isDone() {
+            return task.isDone();
+        }
+
+        @Override
+        public V get() throws InterruptedException, ExecutionException {
+            return task.get();
+        }
+
+        @Override
+        public V get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            return task.get(timeout, unit);
+        }
+    }
+}
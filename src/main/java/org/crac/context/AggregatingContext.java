@@ -0,0 +1,102 @@
+// Copyright 2026 Azul Systems, Inc.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright notice,
+// this list of conditions and the following disclaimer in the documentation
+// and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package org.crac.context;
+
+import org.crac.CheckpointException;
+import org.crac.Context;
+import org.crac.Resource;
+import org.crac.RestoreException;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A {@code Context} that notifies its {@code Resource}s in the order of the global {@code Context}.
+ *
+ * <p>Registration of a {@code Resource} in the global {@code Context} involves a wrapper per {@code Resource}
+ * and a call into the CRaC implementation. This context is registered in the global {@code Context} only once,
+ * and keeps only a weak reference per registered {@code Resource}. This makes it suitable for a large number of
+ * similar {@code Resource}s, for example pooled objects:
+ * <pre>{@code
+ * static final AggregatingContext<Connection> connections = new AggregatingContext<>();
+ * static {
+ *     Context.getGlobalContext().register(connections);
+ * }
+ * ...
+ * connections.register(connection);
+ * }</pre>
+ *
+ * <p>The {@code Resource}s are notified when the context itself is notified, so their order relative to
+ * the {@code Resource}s registered elsewhere is defined by the registration of the context.
+ *
+ * @param <R> type of {@code Resource}s registered with the context
+ */
+public class AggregatingContext<R extends Resource> extends Context<R> {
+    private final WeakResourceList<R> resources = new WeakResourceList<>();
+
+    // Strong references to the Resources notified about checkpoint, kept until restore
+    private List<R> notified;
+
+    /**
+     * Creates an {@code AggregatingContext}.
+     */
+    public AggregatingContext() {
+    }
+
+    @Override
+    public void beforeCheckpoint(Context<? extends Resource> context) throws CheckpointException {
+        List<R> snapshot = resources.snapshot();
+        notified = snapshot;
+        ExceptionHolder<CheckpointException> exceptions = new ExceptionHolder<>(CheckpointException::new);
+        for (int i = snapshot.size() - 1; i >= 0; i--) {
+            try {
+                snapshot.get(i).beforeCheckpoint(this);
+            } catch (Exception e) {
+                exceptions.handle(e);
+            }
+        }
+        exceptions.throwIfAny();
+    }
+
+    @Override
+    public void afterRestore(Context<? extends Resource> context) throws RestoreException {
+        List<R> snapshot = notified != null ? notified : resources.snapshot();
+        notified = null;
+        ExceptionHolder<RestoreException> exceptions = new ExceptionHolder<>(RestoreException::new);
+        for (R r : snapshot) {
+            try {
+                r.afterRestore(this);
+            } catch (Exception e) {
+                exceptions.handle(e);
+            }
+        }
+        exceptions.throwIfAny();
+    }
+
+    @Override
+    public void register(R resource) {
+        resources.add(Objects.requireNonNull(resource));
+    }
+}
@@ -0,0 +1,160 @@
+// Copyright 2026 Azul Systems, Inc.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright notice,
+// this list of conditions and the following disclaimer in the documentation
+// and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package org.crac.context;
+
+import org.crac.CheckpointException;
+import org.crac.Context;
+import org.crac.Resource;
+import org.crac.RestoreException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * A {@code Context} that starts notifications of all {@link AsyncResource}s, then waits for them to complete.
+ *
+ * <p>The notifications are started in the order of the global {@code Context}.
+ * A {@code Resource} that is not an {@code AsyncResource} is notified synchronously when its turn comes.
+ * The notification of the context completes when all started notifications complete,
+ * so its duration is close to the one of the slowest {@code Resource}.
+ *
+ * <p>Exceptions thrown when starting a notification and exceptions completing the returned stages are suppressed by
+ * a {@code CheckpointException} or {@code RestoreException}, as in the global {@code Context}.
+ *
+ * @param <R> type of {@code Resource}s registered with the context
+ */
+public class AsyncContext<R extends Resource> extends Context<R> {
+    private final WeakResourceList<R> resources = new WeakResourceList<>();
+
+    // Strong references to the Resources notified about checkpoint, kept until restore
+    private List<R> notified;
+
+    /**
+     * Creates an {@code AsyncContext}.
+     */
+    public AsyncContext() {
+    }
+
+    @Override
+    public void beforeCheckpoint(Context<? extends Resource> context) throws CheckpointException {
+        List<R> snapshot = resources.snapshot();
+        notified = snapshot;
+        ExceptionHolder<CheckpointException> exceptions = new ExceptionHolder<>(CheckpointException::new);
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        for (int i = snapshot.size() - 1; i >= 0; i--) {
+            R r = snapshot.get(i);
+            try {
+                if (r instanceof AsyncResource) {
+                    pending.add(toFuture(((AsyncResource) r).beforeCheckpointAsync(this)));
+                } else {
+                    r.beforeCheckpoint(this);
+                }
+            } catch (Exception e) {
+                exceptions.handle(e);
+            }
+        }
+        awaitAll(pending, exceptions);
+        exceptions.throwIfAny();
+    }
+
+    @Override
+    public void afterRestore(Context<? extends Resource> context) throws RestoreException {
+        List<R> snapshot = notified != null ? notified : resources.snapshot();
+        notified = null;
+        ExceptionHolder<RestoreException> exceptions = new ExceptionHolder<>(RestoreException::new);
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        for (R r : snapshot) {
+            try {
+                if (r instanceof AsyncResource) {
+                    pending.add(toFuture(((AsyncResource) r).afterRestoreAsync(this)));
+                } else {
+                    r.afterRestore(this);
+                }
+            } catch (Exception e) {
+                exceptions.handle(e);
+            }
+        }
+        awaitAll(pending, exceptions);
+        exceptions.throwIfAny();
+    }
+
+    @Override
+    public void register(R resource) {
+        resources.add(Objects.requireNonNull(resource));
+    }
+
+    private static void awaitAll(List<CompletableFuture<Void>> pending, ExceptionHolder<?> exceptions) {
+        for (CompletableFuture<Void> future : pending) {
+            try {
+                await(future);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                exceptions.handle(e);
+            } catch (Exception e) {
+                exceptions.handle(e);
+            }
+        }
+    }
+
+    // Not every CompletionStage supports toCompletableFuture()
+    static CompletableFuture<Void> toFuture(CompletionStage<Void> stage) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        if (stage == null) {
+            future.complete(null);
+        } else {
+            stage.whenComplete((v, t) -> {
+                if (t != null) {
+                    future.completeExceptionally(t);
+                } else {
+                    future.complete(null);
+                }
+            });
+        }
+        return future;
+    }
+
+    // Waits for the future and throws the exception it completed with
+    static void await(CompletableFuture<Void> future) throws Exception {
+        try {
+            future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            while (cause instanceof CompletionException && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+// Copyright 2026 Azul Systems, Inc.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright notice,
+// this list of conditions and the following disclaimer in the documentation
+// and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package org.crac.context;
+
+import org.crac.Context;
+import org.crac.Resource;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * A {@code Resource} that processes notifications asynchronously.
+ *
+ * <p>When registered with an {@link AsyncContext}, the notifications of all {@code AsyncResource}s are started
+ * first and then awaited together, without blocking a thread per {@code Resource}.
+ * In any other {@code Context}, the notification waits for the returned stage to complete.
+ */
+public interface AsyncResource extends Resource {
+
+    /**
+     * Starts processing the notification about checkpoint.
+     *
+     * @param context {@code Context} providing notification
+     * @return a stage that completes when the notification is processed, or completes exceptionally
+     *         if the processing has failed. {@code null} is interpreted as a completed stage.
+     * @throws Exception if the processing could not be started
+     */
+    CompletionStage<Void> beforeCheckpointAsync(Context<? extends Resource> context) throws Exception;
+
+    /**
+     * Starts processing the notification about restore.
+     *
+     * @param context {@code Context} providing notification
+     * @return a stage that completes when the notification is processed, or completes exceptionally
+     *         if the processing has failed. {@code null} is interpreted as a completed stage.
+     * @throws Exception if the processing could not be started
+     */
+    CompletionStage<Void> afterRestoreAsync(Context<? extends Resource> context) throws Exception;
+
+    /**
+     * Invokes {@link #beforeCheckpointAsync} and waits for the stage to complete.
+     *
+     * @param context {@code Context} providing notification
+     * @throws Exception if the processing has failed
+     */
+    @Override
+    default void beforeCheckpoint(Context<? extends Resource> context) throws Exception {
+        AsyncContext.await(AsyncContext.toFuture(beforeCheckpointAsync(context)));
+    }
+
+    /**
+     * Invokes {@link #afterRestoreAsync} and waits for the stage to complete.
+     *
+     * @param context {@code Context} providing notification
+     * @throws Exception if the processing has failed
+     */
+    @Override
+    default void afterRestore(Context<? extends Resource> context) throws Exception {
+        AsyncContext.await(AsyncContext.toFuture(afterRestoreAsync(context)));
+    }
+}
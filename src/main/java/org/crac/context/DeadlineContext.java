@@ -0,0 +1,203 @@
+// Copyright 2026 Azul Systems, Inc.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright notice,
+// this list of conditions and the following disclaimer in the documentation
+// and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package org.crac.context;
+
+import org.crac.CheckpointException;
+import org.crac.Context;
+import org.crac.Resource;
+import org.crac.RestoreException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A {@code Context} that limits the duration of notifications.
+ *
+ * <p>The {@code Resource}s are notified in the order of the global {@code Context}, each in a separate thread.
+ * A notification that does not complete within the per-{@code Resource} timeout is abandoned: its thread is
+ * interrupted, and a {@link TimeoutException} naming the {@code Resource} is suppressed by the
+ * {@code CheckpointException} or {@code RestoreException} thrown by the context.
+ * The stack trace of the {@code TimeoutException} is the one of the abandoned notification at the moment of timeout.
+ *
+ * <p>Checkpoint notification is also limited in total. Once the total timeout expires, the remaining
+ * {@code Resource}s are not notified, and a {@code TimeoutException} is reported for them.
+ * Restore notification is sent to every {@code Resource} that was notified about checkpoint,
+ * including ones that timed out, regardless of the total time spent.
+ * Therefore, a {@code Resource} may receive the restore notification while its checkpoint notification
+ * is still in progress.
+ *
+ * <p>If the notifying thread is interrupted, the notification in progress is abandoned, the remaining
+ * {@code Resource}s are not notified, and the {@code InterruptedException} is suppressed by the exception
+ * thrown by the context. The interrupt status of the thread is kept.
+ *
+ * @param <R> type of {@code Resource}s registered with the context
+ */
+public class DeadlineContext<R extends Resource> extends Context<R> {
+    private static final AtomicInteger threadCount = new AtomicInteger();
+
+    private final WeakResourceList<R> resources = new WeakResourceList<>();
+    private final long resourceTimeout;
+    private final long totalTimeout;
+
+    // Strong references to the Resources notified about checkpoint, kept until restore
+    private List<R> notified;
+
+    private interface Notification {
+        void run() throws Exception;
+    }
+
+    /**
+     * Creates a {@code DeadlineContext}.
+     *
+     * @param resourceTimeout maximum duration of a notification of a single {@code Resource}
+     * @param totalTimeout maximum duration of the checkpoint notification of all {@code Resource}s
+     * @param unit unit of the timeouts
+     * @throws IllegalArgumentException if a timeout is not positive
+     */
+    public DeadlineContext(long resourceTimeout, long totalTimeout, TimeUnit unit) {
+        if (resourceTimeout <= 0 || totalTimeout <= 0) {
+            throw new IllegalArgumentException("timeouts must be positive");
+        }
+        this.resourceTimeout = unit.toNanos(resourceTimeout);
+        this.totalTimeout = unit.toNanos(totalTimeout);
+    }
+
+    @Override
+    public void beforeCheckpoint(Context<? extends Resource> context) throws CheckpointException {
+        List<R> snapshot = resources.snapshot();
+        List<R> started = new ArrayList<>(snapshot.size());
+        notified = started;
+        ExceptionHolder<CheckpointException> exceptions = new ExceptionHolder<>(CheckpointException::new);
+        long deadline = System.nanoTime() + totalTimeout;
+        ExecutorService executor = newExecutor();
+        try {
+            for (int i = snapshot.size() - 1; i >= 0; i--) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    exceptions.handle(new TimeoutException("Checkpoint notification exceeded "
+                            + TimeUnit.NANOSECONDS.toMillis(totalTimeout) + " ms, "
+                            + (i + 1) + " resources not notified"));
+                    break;
+                }
+                R r = snapshot.get(i);
+                if (notify(executor, r, "beforeCheckpoint", () -> r.beforeCheckpoint(this),
+                        Math.min(remaining, resourceTimeout), exceptions)) {
+                    started.add(r);
+                }
+                if (Thread.currentThread().isInterrupted()) {
+                    // The remaining Resources are not notified
+                    break;
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        exceptions.throwIfAny();
+    }
+
+    @Override
+    public void afterRestore(Context<? extends Resource> context) throws RestoreException {
+        List<R> snapshot = notified;
+        if (snapshot == null) {
+            snapshot = resources.snapshot();
+        } else {
+            // Restore order is the reverse of checkpoint one
+            snapshot = new ArrayList<>(snapshot);
+            Collections.reverse(snapshot);
+        }
+        notified = null;
+        ExceptionHolder<RestoreException> exceptions = new ExceptionHolder<>(RestoreException::new);
+        ExecutorService executor = newExecutor();
+        try {
+            for (R r : snapshot) {
+                notify(executor, r, "afterRestore", () -> r.afterRestore(this), resourceTimeout, exceptions);
+                if (Thread.currentThread().isInterrupted()) {
+                    break;
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        exceptions.throwIfAny();
+    }
+
+    @Override
+    public void register(R resource) {
+        resources.add(Objects.requireNonNull(resource));
+    }
+
+    private static ExecutorService newExecutor() {
+        // A thread stuck in an abandoned notification is not reused
+        return Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "DeadlineContext-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Returns false if the notification was abandoned before it began
+    private static boolean notify(ExecutorService executor, Resource resource, String method,
+                                  Notification notification, long timeout, ExceptionHolder<?> exceptions) {
+        // The thread running the notification, or the notifying thread if it abandoned the notification first
+        AtomicReference<Thread> thread = new AtomicReference<>();
+        Future<?> future = executor.submit(() -> {
+            if (thread.compareAndSet(null, Thread.currentThread())) {
+                notification.run();
+            }
+            return null;
+        });
+        try {
+            future.get(timeout, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            exceptions.handle(e.getCause());
+        } catch (TimeoutException e) {
+            TimeoutException timeoutException = new TimeoutException(method + " of " + resource
+                    + " did not complete in " + TimeUnit.NANOSECONDS.toMillis(timeout) + " ms");
+            Thread t = thread.get();
+            if (t != null) {
+                timeoutException.setStackTrace(t.getStackTrace());
+            }
+            future.cancel(true);
+            exceptions.handle(timeoutException);
+        } catch (InterruptedException e) {
+            boolean began = !thread.compareAndSet(null, Thread.currentThread());
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            exceptions.handle(e);
+            return began;
+        }
+        return true;
+    }
+}
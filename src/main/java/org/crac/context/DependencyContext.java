@@ -0,0 +1,321 @@
+// Copyright 2026 Azul Systems, Inc.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright notice,
+// this list of conditions and the following disclaimer in the documentation
+// and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package org.crac.context;
+
+import org.crac.CheckpointException;
+import org.crac.Context;
+import org.crac.Resource;
+import org.crac.RestoreException;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+/**
+ * A {@code Context} that orders notifications by dependencies between {@code Resource}s.
+ *
+ * <p>A {@code Resource} may be registered with a list of {@code Resource}s it depends on.
+ * On checkpoint, a {@code Resource} is notified before the {@code Resource}s it depends on,
+ * and on restore after them. For example, an HTTP server depending on a database connection pool
+ * is closed before the pool, and started after it:
+ * <pre>{@code
+ * context.register(pool);
+ * context.register(server, Collections.singletonList(pool));
+ * }</pre>
+ *
+ * <p>{@code Resource}s not ordered by dependencies are notified concurrently. The notification proceeds in waves:
+ * on checkpoint, a wave consists of the {@code Resource}s that no {@code Resource} of later waves depends on,
+ * on restore the waves come in the reverse order.
+ * Without dependencies, the {@code Resource}s are notified in a single wave, like in {@link ParallelContext}.
+ *
+ * <p>Dependencies are maintained through the {@code Resource}s that are no longer reachable,
+ * so collection of a {@code Resource} does not relax the order of the others.
+ * The properties of the global {@code Context} are maintained otherwise.
+ *
+ * <p>The context is intended for relatively few coarse-grained {@code Resource}s:
+ * registration takes time linear in the number of registered {@code Resource}s.
+ *
+ * @param <R> type of {@code Resource}s registered with the context
+ */
+public class DependencyContext<R extends Resource> extends Context<R> {
+
+    private static final class Node<R> extends WeakReference<R> {
+        final List<Node<R>> dependencies = new ArrayList<>();
+
+        Node(R resource) {
+            super(resource);
+        }
+    }
+
+    // In the order of registration
+    private final List<Node<R>> nodes = new ArrayList<>();
+    private final ParallelExecution execution;
+
+    // Checkpoint waves of the Resources notified about checkpoint, kept until restore
+    private List<List<R>> notified;
+
+    /**
+     * Creates a {@code DependencyContext} running at most as many notifications at once as there are
+     * available processors.
+     */
+    public DependencyContext() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a {@code DependencyContext} running at most {@code parallelism} notifications at once.
+     * With {@code parallelism} of 1, a wave is notified in the reverse order of registration on checkpoint,
+     * and in the order of registration on restore.
+     *
+     * @param parallelism maximum number of concurrent notifications
+     * @throws IllegalArgumentException if {@code parallelism} is not positive
+     */
+    public DependencyContext(int parallelism) {
+        execution = new ParallelExecution(parallelism);
+    }
+
+    /**
+     * Creates a {@code DependencyContext} running notifications on the {@code executor}.
+     *
+     * @param executor {@code Executor} to run notifications on
+     * @throws NullPointerException if {@code executor} is {@code null}
+     */
+    public DependencyContext(Executor executor) {
+        execution = new ParallelExecution(executor);
+    }
+
+    @Override
+    public void beforeCheckpoint(Context<? extends Resource> context) throws CheckpointException {
+        List<List<R>> waves = checkpointWaves();
+        notified = waves;
+        ExceptionHolder<CheckpointException> exceptions = new ExceptionHolder<>(CheckpointException::new);
+        List<List<Runnable>> tasks = new ArrayList<>(waves.size());
+        for (List<R> wave : waves) {
+            List<Runnable> waveTasks = new ArrayList<>(wave.size());
+            for (R r : wave) {
+                waveTasks.add(() -> {
+                    try {
+                        r.beforeCheckpoint(this);
+                    } catch (Exception e) {
+                        exceptions.handle(e);
+                    }
+                });
+            }
+            tasks.add(waveTasks);
+        }
+        execution.run(tasks);
+        exceptions.throwIfAny();
+    }
+
+    @Override
+    public void afterRestore(Context<? extends Resource> context) throws RestoreException {
+        List<List<R>> waves = notified != null ? notified : checkpointWaves();
+        notified = null;
+        ExceptionHolder<RestoreException> exceptions = new ExceptionHolder<>(RestoreException::new);
+        List<List<Runnable>> tasks = new ArrayList<>(waves.size());
+        for (int i = waves.size() - 1; i >= 0; i--) {
+            List<R> wave = waves.get(i);
+            List<Runnable> waveTasks = new ArrayList<>(wave.size());
+            for (int j = wave.size() - 1; j >= 0; j--) {
+                R r = wave.get(j);
+                waveTasks.add(() -> {
+                    try {
+                        r.afterRestore(this);
+                    } catch (Exception e) {
+                        exceptions.handle(e);
+                    }
+                });
+            }
+            tasks.add(waveTasks);
+        }
+        execution.run(tasks);
+        exceptions.throwIfAny();
+    }
+
+    /**
+     * Registers a {@code Resource} without dependencies.
+     *
+     * @param resource {@code Resource} to be registered.
+     * @throws NullPointerException if {@code resource} is {@code null}
+     */
+    @Override
+    public void register(R resource) {
+        register(resource, Collections.emptyList());
+    }
+
+    /**
+     * Registers a {@code Resource} depending on other {@code Resource}s, which must be registered already.
+     * If the {@code resource} is registered already, the {@code dependencies} are added to its existing ones.
+     *
+     * @param resource {@code Resource} to be registered.
+     * @param dependencies {@code Resource}s the {@code resource} depends on
+     * @throws NullPointerException if {@code resource} or any of {@code dependencies} is {@code null}
+     * @throws IllegalArgumentException if a dependency is not registered, or if it depends on {@code resource},
+     *                                  directly or indirectly
+     */
+    public synchronized void register(R resource, Collection<? extends R> dependencies) {
+        Objects.requireNonNull(resource);
+        expungeStaleNodes();
+        Node<R> node = find(resource);
+        List<Node<R>> added = new ArrayList<>(dependencies.size());
+        for (R dependency : dependencies) {
+            Node<R> dependencyNode = find(Objects.requireNonNull(dependency));
+            if (dependencyNode == null) {
+                throw new IllegalArgumentException("Dependency is not registered: " + dependency);
+            }
+            // A new edge closes a cycle only if the dependency already depends on the resource
+            if (node != null && (dependencyNode == node || dependsOn(dependencyNode, node))) {
+                throw new IllegalArgumentException("Dependency cycle: " + resource + " -> " + dependency);
+            }
+            added.add(dependencyNode);
+        }
+        if (node == null) {
+            node = new Node<>(resource);
+            nodes.add(node);
+        }
+        for (Node<R> dependencyNode : added) {
+            if (!node.dependencies.contains(dependencyNode)) {
+                node.dependencies.add(dependencyNode);
+            }
+        }
+    }
+
+    private Node<R> find(R resource) {
+        for (Node<R> node : nodes) {
+            if (node.get() == resource) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    private static <R> boolean dependsOn(Node<R> from, Node<R> to) {
+        Set<Node<R>> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<Node<R>> stack = new ArrayDeque<>();
+        stack.push(from);
+        while (!stack.isEmpty()) {
+            Node<R> node = stack.pop();
+            for (Node<R> dependency : node.dependencies) {
+                if (dependency == to) {
+                    return true;
+                }
+                if (visited.add(dependency)) {
+                    stack.push(dependency);
+                }
+            }
+        }
+        return false;
+    }
+
+    // Removes the nodes of collected Resources, making their dependents depend
+    // on their dependencies instead
+    private void expungeStaleNodes() {
+        Set<Node<R>> stale = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Node<R> node : nodes) {
+            if (node.get() == null) {
+                stale.add(node);
+            }
+        }
+        if (stale.isEmpty()) {
+            return;
+        }
+        for (Node<R> node : nodes) {
+            if (!stale.contains(node)) {
+                List<Node<R>> dependencies = new ArrayList<>();
+                collectLiveDependencies(node, stale, dependencies, Collections.newSetFromMap(new IdentityHashMap<>()));
+                node.dependencies.clear();
+                node.dependencies.addAll(dependencies);
+            }
+        }
+        nodes.removeIf(stale::contains);
+    }
+
+    private static <R> void collectLiveDependencies(Node<R> node, Set<Node<R>> stale,
+                                                    List<Node<R>> result, Set<Node<R>> visited) {
+        for (Node<R> dependency : node.dependencies) {
+            if (visited.add(dependency)) {
+                if (stale.contains(dependency)) {
+                    collectLiveDependencies(dependency, stale, result, visited);
+                } else {
+                    result.add(dependency);
+                }
+            }
+        }
+    }
+
+    // Waves in checkpoint order, each in the reverse order of registration
+    private synchronized List<List<R>> checkpointWaves() {
+        expungeStaleNodes();
+        // Resources are collected only now, nodes collected after expunging are passed through
+        Map<Node<R>, R> resources = new IdentityHashMap<>();
+        Map<Node<R>, Integer> order = new IdentityHashMap<>();
+        Map<Node<R>, Integer> dependents = new IdentityHashMap<>();
+        for (Node<R> node : nodes) {
+            resources.put(node, node.get());
+            order.put(node, order.size());
+            for (Node<R> dependency : node.dependencies) {
+                dependents.merge(dependency, 1, Integer::sum);
+            }
+        }
+        List<List<R>> waves = new ArrayList<>();
+        List<Node<R>> wave = new ArrayList<>();
+        for (int i = nodes.size() - 1; i >= 0; i--) {
+            Node<R> node = nodes.get(i);
+            if (!dependents.containsKey(node)) {
+                wave.add(node);
+            }
+        }
+        while (!wave.isEmpty()) {
+            List<R> live = new ArrayList<>(wave.size());
+            List<Node<R>> next = new ArrayList<>();
+            for (Node<R> node : wave) {
+                R r = resources.get(node);
+                if (r != null) {
+                    live.add(r);
+                }
+                for (Node<R> dependency : node.dependencies) {
+                    if (dependents.merge(dependency, -1, Integer::sum) == 0) {
+                        next.add(dependency);
+                    }
+                }
+            }
+            if (!live.isEmpty()) {
+                waves.add(live);
+            }
+            next.sort((a, b) -> Integer.compare(order.get(b), order.get(a)));
+            wave = next;
+        }
+        return waves;
+    }
+}
@@ -0,0 +1,63 @@
+// Copyright 2026 Azul Systems, Inc.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright notice,
+// this list of conditions and the following disclaimer in the documentation
+// and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package org.crac.context;
+
+import org.crac.CheckpointException;
+import org.crac.RestoreException;
+
+import java.util.function.Supplier;
+
+/**
+ * Accumulates exceptions of a notification, as the global {@code Context} does.
+ * Safe for use from multiple threads.
+ */
+final class ExceptionHolder<E extends Exception> {
+    private final Supplier<E> constructor;
+    private E exception;
+
+    ExceptionHolder(Supplier<E> constructor) {
+        this.constructor = constructor;
+    }
+
+    synchronized void handle(Throwable t) {
+        if (exception == null) {
+            exception = constructor.get();
+        }
+        // Exceptions suppressed by a nested Context are suppressed by ours instead
+        if (t instanceof CheckpointException || t instanceof RestoreException) {
+            for (Throwable suppressed : t.getSuppressed()) {
+                exception.addSuppressed(suppressed);
+            }
+        } else {
+            exception.addSuppressed(t);
+        }
+    }
+
+    synchronized void throwIfAny() throws E {
+        if (exception != null) {
+            throw exception;
+        }
+    }
+}
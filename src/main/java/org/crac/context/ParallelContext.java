@@ -0,0 +1,133 @@
+// Copyright 2026 Azul Systems, Inc.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright notice,
+// this list of conditions and the following disclaimer in the documentation
+// and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package org.crac.context;
+
+import org.crac.CheckpointException;
+import org.crac.Context;
+import org.crac.Resource;
+import org.crac.RestoreException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+
+/**
+ * A {@code Context} that notifies its {@code Resource}s concurrently.
+ *
+ * <p>The duration of a notification is close to the duration of the slowest {@code Resource} notification,
+ * rather than to the sum of all of them. This suits {@code Resource}s with independent notifications,
+ * such as ones closing and reopening connections or files.
+ *
+ * <p>Compared to the global {@code Context}, the order of notification is not defined.
+ * Otherwise the properties of the global {@code Context} are maintained: all registered {@code Resource}s are
+ * notified regardless of exceptions thrown by others, and the exceptions are suppressed by a
+ * {@code CheckpointException} or {@code RestoreException} thrown when all notifications complete.
+ * The order of suppressed exceptions is not defined either.
+ *
+ * @param <R> type of {@code Resource}s registered with the context
+ */
+public class ParallelContext<R extends Resource> extends Context<R> {
+    private final WeakResourceList<R> resources = new WeakResourceList<>();
+    private final ParallelExecution execution;
+
+    // Strong references to the Resources notified about checkpoint, kept until restore
+    private List<R> notified;
+
+    /**
+     * Creates a {@code ParallelContext} running at most as many notifications at once as there are
+     * available processors.
+     */
+    public ParallelContext() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a {@code ParallelContext} running at most {@code parallelism} notifications at once.
+     * The threads are started for the duration of a notification only.
+     *
+     * @param parallelism maximum number of concurrent notifications
+     * @throws IllegalArgumentException if {@code parallelism} is not positive
+     */
+    public ParallelContext(int parallelism) {
+        execution = new ParallelExecution(parallelism);
+    }
+
+    /**
+     * Creates a {@code ParallelContext} running notifications on the {@code executor}.
+     * The {@code executor} defines the parallelism.
+     * If it rejects a notification, the notification runs in the notifying thread.
+     *
+     * @param executor {@code Executor} to run notifications on
+     * @throws NullPointerException if {@code executor} is {@code null}
+     */
+    public ParallelContext(Executor executor) {
+        execution = new ParallelExecution(executor);
+    }
+
+    @Override
+    public void beforeCheckpoint(Context<? extends Resource> context) throws CheckpointException {
+        List<R> snapshot = resources.snapshot();
+        notified = snapshot;
+        ExceptionHolder<CheckpointException> exceptions = new ExceptionHolder<>(CheckpointException::new);
+        List<Runnable> tasks = new ArrayList<>(snapshot.size());
+        for (R r : snapshot) {
+            tasks.add(() -> {
+                try {
+                    r.beforeCheckpoint(this);
+                } catch (Exception e) {
+                    exceptions.handle(e);
+                }
+            });
+        }
+        execution.run(Collections.singletonList(tasks));
+        exceptions.throwIfAny();
+    }
+
+    @Override
+    public void afterRestore(Context<? extends Resource> context) throws RestoreException {
+        List<R> snapshot = notified != null ? notified : resources.snapshot();
+        notified = null;
+        ExceptionHolder<RestoreException> exceptions = new ExceptionHolder<>(RestoreException::new);
+        List<Runnable> tasks = new ArrayList<>(snapshot.size());
+        for (R r : snapshot) {
+            tasks.add(() -> {
+                try {
+                    r.afterRestore(this);
+                } catch (Exception e) {
+                    exceptions.handle(e);
+                }
+            });
+        }
+        execution.run(Collections.singletonList(tasks));
+        exceptions.throwIfAny();
+    }
+
+    @Override
+    public void register(R resource) {
+        resources.add(Objects.requireNonNull(resource));
+    }
+}
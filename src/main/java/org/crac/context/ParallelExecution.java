@@ -0,0 +1,97 @@
+// Copyright 2026 Azul Systems, Inc.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright notice,
+// this list of conditions and the following disclaimer in the documentation
+// and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package org.crac.context;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs tasks in waves: the tasks of a wave run in parallel, and a wave starts after the previous one completes.
+ *
+ * <p>Unless an {@code Executor} is supplied, a pool is created for each {@link #run} and shut down
+ * at its end, so no idle threads are left between notifications.
+ */
+final class ParallelExecution {
+    private final Executor executor;
+    private final int parallelism;
+
+    ParallelExecution(int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+        }
+        this.executor = null;
+        this.parallelism = parallelism;
+    }
+
+    ParallelExecution(Executor executor) {
+        if (executor == null) {
+            throw new NullPointerException("executor");
+        }
+        this.executor = executor;
+        this.parallelism = 0;
+    }
+
+    /**
+     * Runs the waves in order. The tasks are expected to handle their exceptions.
+     */
+    void run(List<? extends List<? extends Runnable>> waves) {
+        ForkJoinPool pool = null;
+        Executor e = executor;
+        try {
+            for (List<? extends Runnable> wave : waves) {
+                if (wave.size() <= 1 || parallelism == 1) {
+                    // Nothing to parallelize
+                    wave.forEach(Runnable::run);
+                    continue;
+                }
+                if (e == null) {
+                    e = pool = new ForkJoinPool(parallelism);
+                }
+                runWave(e, wave);
+            }
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+    }
+
+    private static void runWave(Executor executor, List<? extends Runnable> tasks) {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[tasks.size()];
+        for (int i = 0; i < futures.length; i++) {
+            Runnable task = tasks.get(i);
+            try {
+                futures[i] = CompletableFuture.runAsync(task, executor);
+            } catch (RejectedExecutionException ex) {
+                task.run();
+                futures[i] = CompletableFuture.completedFuture(null);
+            }
+        }
+        CompletableFuture.allOf(futures).join();
+    }
+}
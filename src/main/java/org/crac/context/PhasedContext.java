@@ -0,0 +1,217 @@
+// Copyright 2026 Azul Systems, Inc.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright notice,
+// this list of conditions and the following disclaimer in the documentation
+// and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+package org.crac.context;
+
+import org.crac.CheckpointException;
+import org.crac.Context;
+import org.crac.Resource;
+import org.crac.RestoreException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+
+/**
+ * A {@code Context} that notifies its {@code Resource}s in named phases.
+ *
+ * <p>The phases are given in the order of checkpoint notification, and a {@code Resource} is registered
+ * into one of them. On checkpoint, the phases are notified in the given order, on restore in the reverse order.
+ * A phase starts after all notifications of the previous phase complete, and the {@code Resource}s of a phase
+ * are notified concurrently. For example, a service may stop accepting requests, drain in-flight requests,
+ * flush buffers and close descriptors on checkpoint, and do the mirror sequence on restore:
+ * <pre>{@code
+ * PhasedContext<Resource> context = new PhasedContext<>("accept", "drain", "flush", "close");
+ * context.register(listener, "accept");
+ * context.register(workQueue, "drain");
+ * context.register(log, "flush");
+ * context.register(connections, "close");
+ * }</pre>
+ *
+ * <p>Otherwise the properties of the global {@code Context} are maintained: all registered {@code Resource}s are
+ * notified regardless of exceptions thrown by others, including {@code Resource}s of later phases,
+ * and the exceptions are suppressed by a {@code CheckpointException} or {@code RestoreException} thrown
+ * when all notifications complete.
+ *
+ * @param <R> type of {@code Resource}s registered with the context
+ */
+public class PhasedContext<R extends Resource> extends Context<R> {
+    private final List<String> phases;
+    private final Map<String, WeakResourceList<R>> resources = new HashMap<>();
+    private final ParallelExecution execution;
+
+    // Strong references to the Resources notified about checkpoint, by phase in checkpoint order,
+    // kept until restore
+    private List<List<R>> notified;
+
+    /**
+     * Creates a {@code PhasedContext} running at most as many notifications of a phase at once
+     * as there are available processors.
+     *
+     * @param phases names of the phases in the order of checkpoint notification
+     * @throws IllegalArgumentException if there are no phases or a phase name is repeated
+     * @throws NullPointerException if a phase name is {@code null}
+     */
+    public PhasedContext(String... phases) {
+        this(Runtime.getRuntime().availableProcessors(), phases);
+    }
+
+    /**
+     * Creates a {@code PhasedContext} running at most {@code parallelism} notifications of a phase at once.
+     * The threads are started for the duration of a notification only.
+     *
+     * @param parallelism maximum number of concurrent notifications
+     * @param phases names of the phases in the order of checkpoint notification
+     * @throws IllegalArgumentException if {@code parallelism} is not positive, there are no phases
+     *                                  or a phase name is repeated
+     * @throws NullPointerException if a phase name is {@code null}
+     */
+    public PhasedContext(int parallelism, String... phases) {
+        this(new ParallelExecution(parallelism), phases);
+    }
+
+    /**
+     * Creates a {@code PhasedContext} running notifications on the {@code executor}.
+     * The {@code executor} defines the parallelism.
+     * If it rejects a notification, the notification runs in the notifying thread.
+     *
+     * @param executor {@code Executor} to run notifications on
+     * @param phases names of the phases in the order of checkpoint notification
+     * @throws IllegalArgumentException if there are no phases or a phase name is repeated
+     * @throws NullPointerException if {@code executor} or a phase name is {@code null}
+     */
+    public PhasedContext(Executor executor, String... phases) {
+        this(new ParallelExecution(executor), phases);
+    }
+
+    private PhasedContext(ParallelExecution execution, String... phases) {
+        if (phases.length == 0) {
+            throw new IllegalArgumentException("no phases");
+        }
+        for (String phase : phases) {
+            if (resources.put(Objects.requireNonNull(phase, "phase"), new WeakResourceList<>()) != null) {
+                throw new IllegalArgumentException("repeated phase: " + phase);
+            }
+        }
+        this.phases = Collections.unmodifiableList(new ArrayList<>(Arrays.asList(phases)));
+        this.execution = execution;
+    }
+
+    /**
+     * Returns the names of the phases in the order of checkpoint notification.
+     *
+     * @return the names of the phases.
+     */
+    public List<String> getPhases() {
+        return phases;
+    }
+
+    @Override
+    public void beforeCheckpoint(Context<? extends Resource> context) throws CheckpointException {
+        List<List<R>> snapshot = snapshot();
+        notified = snapshot;
+        ExceptionHolder<CheckpointException> exceptions = new ExceptionHolder<>(CheckpointException::new);
+        List<List<Runnable>> waves = new ArrayList<>(snapshot.size());
+        for (List<R> phase : snapshot) {
+            List<Runnable> tasks = new ArrayList<>(phase.size());
+            for (R r : phase) {
+                tasks.add(() -> {
+                    try {
+                        r.beforeCheckpoint(this);
+                    } catch (Exception e) {
+                        exceptions.handle(e);
+                    }
+                });
+            }
+            waves.add(tasks);
+        }
+        execution.run(waves);
+        exceptions.throwIfAny();
+    }
+
+    @Override
+    public void afterRestore(Context<? extends Resource> context) throws RestoreException {
+        List<List<R>> snapshot = notified != null ? notified : snapshot();
+        notified = null;
+        ExceptionHolder<RestoreException> exceptions = new ExceptionHolder<>(RestoreException::new);
+        List<List<Runnable>> waves = new ArrayList<>(snapshot.size());
+        for (int i = snapshot.size() - 1; i >= 0; i--) {
+            List<R> phase = snapshot.get(i);
+            List<Runnable> tasks = new ArrayList<>(phase.size());
+            for (R r : phase) {
+                tasks.add(() -> {
+                    try {
+                        r.afterRestore(this);
+                    } catch (Exception e) {
+                        exceptions.handle(e);
+                    }
+                });
+            }
+            waves.add(tasks);
+        }
+        execution.run(waves);
+        exceptions.throwIfAny();
+    }
+
+    private List<List<R>> snapshot() {
+        List<List<R>> snapshot = new ArrayList<>(phases.size());
+        for (String phase : phases) {
+            snapshot.add(resources.get(phase).snapshot());
+        }
+        return snapshot;
+    }
+
+    /**
+     * Registers a {@code Resource} with this {@code Context} into the last phase, so it is notified
+     * after all other phases on checkpoint and before them on restore.
+     *
+     * @param resource {@code Resource} to be registered.
+     * @throws NullPointerException if {@code resource} is {@code null}
+     */
+    @Override
+    public void register(R resource) {
+        register(resource, phases.get(phases.size() - 1));
+    }
+
+    /**
+     * Registers a {@code Resource} with this {@code Context} into the {@code phase}.
+     *
+     * @param resource {@code Resource} to be registered.
+     * @param phase name of the phase
+     * @throws NullPointerException if {@code resource} or {@code phase} is {@code null}
+     * @throws IllegalArgumentException if there is no such phase
+     */
+    public void register(R resource, String phase) {
+        Objects.requireNonNull(resource);
+        WeakResourceList<R> list = resources.get(Objects.requireNonNull(phase, "phase"));
+        if (list == null) {
+            throw new IllegalArgumentException("unknown phase: " + phase);
+        }
+        list.add(resource);
+    }
+}
@@ -0,0 +1,88 @@
+// Copyright 2026 Azul Systems, Inc.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright notice,
+// this list of conditions and the following disclaimer in the documentation
+// and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package org.crac.context;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Weakly referenced elements in the order of addition.
+ *
+ * <p>The references are kept in a plain array. Cleared references are dropped when the array
+ * gets full, before it grows, so the amortized cost of addition stays constant.
+ */
+final class WeakResourceList<T> {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private WeakReference<?>[] refs = new WeakReference<?>[INITIAL_CAPACITY];
+    private int size;
+
+    synchronized void add(T element) {
+        if (size == refs.length) {
+            compact();
+            // Keep some room so compaction does not happen on every addition
+            if (size >= refs.length - refs.length / 4) {
+                refs = Arrays.copyOf(refs, refs.length * 2);
+            }
+        }
+        refs[size++] = new WeakReference<>(element);
+    }
+
+    /**
+     * Returns live elements in the order of addition and drops the cleared references.
+     */
+    synchronized List<T> snapshot() {
+        List<T> live = new ArrayList<>(size);
+        int j = 0;
+        for (int i = 0; i < size; i++) {
+            T element = get(i);
+            if (element != null) {
+                live.add(element);
+                refs[j++] = refs[i];
+            }
+        }
+        Arrays.fill(refs, j, size, null);
+        size = j;
+        return live;
+    }
+
+    private void compact() {
+        int j = 0;
+        for (int i = 0; i < size; i++) {
+            if (refs[i].get() != null) {
+                refs[j++] = refs[i];
+            }
+        }
+        Arrays.fill(refs, j, size, null);
+        size = j;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T get(int i) {
+        return ((WeakReference<T>) refs[i]).get();
+    }
+}
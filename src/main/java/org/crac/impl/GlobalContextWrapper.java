@@ -28,6 +28,10 @@ import org.crac.CheckpointException;
 import org.crac.Context;
 import org.crac.Resource;
 import org.crac.RestoreException;
+import org.crac.util.Registration;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class GlobalContextWrapper extends Context<Resource> {
     public static final Context<Resource> instance = new GlobalContextWrapper();
@@ -48,10 +52,38 @@ public class GlobalContextWrapper extends Context<Resource> {
 
     @Override
     public void register(Resource r) {
-        Proxy proxy = Proxy.instance;
+        Proxy proxy = Proxy.getInstance();
         if (proxy != null) {
-            proxy.register(r);
+            proxy.register(r, false);
+        }
+    }
+
+    // Registers the Resource, unless it is registered already, and returns a handle
+    // that unregisters it once all handles to the Resource are closed. The handle does
+    // not keep the Resource reachable.
+    public Registration registration(Resource r) {
+        Objects.requireNonNull(r);
+        Proxy proxy = Proxy.getInstance();
+        if (proxy == null) {
+            return () -> { };
+        }
+        ResourceWrapper wrapper = proxy.register(r, true);
+        AtomicBoolean closed = new AtomicBoolean();
+        return () -> {
+            if (closed.compareAndSet(false, true)) {
+                wrapper.release();
+            }
+        };
+    }
+
+    public boolean unregister(Resource r) {
+        Objects.requireNonNull(r);
+        ResourceWrapper wrapper = ResourceWrapper.find(r);
+        if (wrapper == null) {
+            return false;
         }
+        wrapper.unregister();
+        return true;
     }
 }
 
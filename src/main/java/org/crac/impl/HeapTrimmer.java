@@ -0,0 +1,125 @@
+// Copyright 2026 Azul Systems, Inc.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright notice,
+// this list of conditions and the following disclaimer in the documentation
+// and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+package org.crac.impl;
+
+import org.crac.Context;
+import org.crac.Resource;
+import org.crac.util.Registration;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryUsage;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Utility class, made public only for org.crac.management and org.crac.util
+//
+// Shrinks the heap at the end of checkpoint notification, so the image is smaller and
+// faster to restore. Set org.crac.HeapTrimmer=true to enable. The Resource is registered
+// when the implementation is detected, ahead of others, so it is notified last on checkpoint.
+// It runs the clear actions of caches, then collects garbage until the used heap stops shrinking.
+public class HeapTrimmer {
+    static final boolean enabled = Boolean.getBoolean("org.crac.HeapTrimmer");
+
+    // Maximum number of collections per checkpoint
+    private static final int MAX_CYCLES = 5;
+    // A collection freeing less than 1/STABLE_FRACTION of the used heap ends the trimming
+    private static final int STABLE_FRACTION = 100;
+
+    private static final Queue<Runnable> caches = new ConcurrentLinkedQueue<>();
+
+    private static volatile long usedBefore = -1;
+    private static volatile long usedAfter = -1;
+    private static volatile long committedAfter = -1;
+
+    private static final Resource resource = new Resource() {
+        @Override
+        public void beforeCheckpoint(Context<? extends Resource> context) {
+            trim();
+        }
+
+        @Override
+        public void afterRestore(Context<? extends Resource> context) {
+        }
+    };
+
+    private HeapTrimmer() {
+    }
+
+    static void install(Proxy proxy) {
+        if (enabled) {
+            // The class keeps the resource reachable
+            proxy.register(resource, false);
+        }
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    // The action is kept reachable until the registration is closed
+    public static Registration addCache(Runnable clear) {
+        Objects.requireNonNull(clear);
+        Runnable entry = clear::run;
+        caches.add(entry);
+        return () -> caches.remove(entry);
+    }
+
+    static void trim() {
+        for (Runnable clear : caches) {
+            try {
+                clear.run();
+            } catch (RuntimeException e) {
+                // A failing cache must not fail the checkpoint, it only stays populated
+            }
+        }
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long used = memory.getHeapMemoryUsage().getUsed();
+        usedBefore = used;
+        for (int i = 0; i < MAX_CYCLES; i++) {
+            System.gc();
+            long previous = used;
+            used = memory.getHeapMemoryUsage().getUsed();
+            if (previous - used < previous / STABLE_FRACTION) {
+                break;
+            }
+        }
+        MemoryUsage usage = memory.getHeapMemoryUsage();
+        usedAfter = usage.getUsed();
+        committedAfter = usage.getCommitted();
+    }
+
+    public static long getHeapUsedBeforeTrim() {
+        return usedBefore;
+    }
+
+    public static long getHeapUsedAfterTrim() {
+        return usedAfter;
+    }
+
+    public static long getHeapCommittedAfterTrim() {
+        return committedAfter;
+    }
+}
@@ -0,0 +1,156 @@
+// Copyright 2026 Azul Systems, Inc.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright notice,
+// this list of conditions and the following disclaimer in the documentation
+// and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+package org.crac.impl;
+
+import org.crac.management.ResourceTiming;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Utility class, made public only for org.crac.management
+//
+// Durations of notifications of Resources registered in the global Context through
+// org.crac, aggregated by the class of Resource. Set org.crac.NotificationStats=true
+// to enable the timing, which costs two System.nanoTime() calls per notification.
+public class NotificationStats {
+    static final int CHECKPOINT = 0;
+    static final int RESTORE = 1;
+
+    private static final String[] phaseNames = { "beforeCheckpoint", "afterRestore" };
+
+    static final boolean enabled = Boolean.getBoolean("org.crac.NotificationStats");
+
+    private static final class ClassStats {
+        final String className;
+        final AtomicLong[] count = { new AtomicLong(), new AtomicLong() };
+        final AtomicLong[] totalTime = { new AtomicLong(), new AtomicLong() };
+        final AtomicLong[] maxTime = { new AtomicLong(), new AtomicLong() };
+        // Bucket i counts durations below 2^i nanoseconds, and not below 2^(i-1)
+        final AtomicLongArray[] histogram = { new AtomicLongArray(64), new AtomicLongArray(64) };
+
+        ClassStats(String className) {
+            this.className = className;
+        }
+
+        void record(int phase, long duration) {
+            count[phase].incrementAndGet();
+            totalTime[phase].addAndGet(duration);
+            maxTime[phase].accumulateAndGet(duration, Math::max);
+            histogram[phase].incrementAndGet(Math.min(63, 64 - Long.numberOfLeadingZeros(duration)));
+        }
+    }
+
+    // Only the name is retained, so the stats do not prevent class unloading
+    private static final Queue<ClassStats> allStats = new ConcurrentLinkedQueue<>();
+    private static final ClassValue<ClassStats> classStats = new ClassValue<ClassStats>() {
+        @Override
+        protected ClassStats computeValue(Class<?> type) {
+            ClassStats stats = new ClassStats(type.getName());
+            allStats.add(stats);
+            return stats;
+        }
+    };
+
+    // A notification of another phase than the current one starts a new phase. The phase time
+    // is wall-clock, from the earliest start to the latest end of its notifications, which may overlap.
+    private static volatile int currentPhase = -1;
+    private static final Object phaseLock = new Object();
+    private static final AtomicLong[] phaseStart = { new AtomicLong(), new AtomicLong() };
+    private static final AtomicLong[] phaseEnd = { new AtomicLong(Long.MIN_VALUE), new AtomicLong(Long.MIN_VALUE) };
+
+    private NotificationStats() {
+    }
+
+    static String phaseName(int phase) {
+        return phaseNames[phase];
+    }
+
+    static long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    static void record(int phase, Class<?> resourceClass, long start) {
+        if (!enabled) {
+            return;
+        }
+        long end = System.nanoTime();
+        if (currentPhase != phase) {
+            synchronized (phaseLock) {
+                // Reset before the phase is published, so no notification of the new phase is lost
+                if (currentPhase != phase) {
+                    phaseStart[phase].set(start);
+                    phaseEnd[phase].set(end);
+                    currentPhase = phase;
+                }
+            }
+        }
+        phaseStart[phase].accumulateAndGet(start, Math::min);
+        phaseEnd[phase].accumulateAndGet(end, Math::max);
+        classStats.get(resourceClass).record(phase, end - start);
+    }
+
+    private static long phaseTime(int phase) {
+        synchronized (phaseLock) {
+            long end = phaseEnd[phase].get();
+            return end == Long.MIN_VALUE ? -1 : end - phaseStart[phase].get();
+        }
+    }
+
+    public static int getRegisteredResourceCount() {
+        return ResourceWrapper.registeredCount();
+    }
+
+    public static long getCheckpointNotificationTime() {
+        return phaseTime(CHECKPOINT);
+    }
+
+    public static long getRestoreNotificationTime() {
+        return phaseTime(RESTORE);
+    }
+
+    public static List<ResourceTiming> getResourceTimings() {
+        List<ResourceTiming> timings = new ArrayList<>();
+        for (ClassStats stats : allStats) {
+            for (int phase = CHECKPOINT; phase <= RESTORE; phase++) {
+                long count = stats.count[phase].get();
+                if (count == 0) {
+                    continue;
+                }
+                long[] histogram = new long[64];
+                for (int i = 0; i < histogram.length; i++) {
+                    histogram[i] = stats.histogram[phase].get(i);
+                }
+                timings.add(new ResourceTiming(stats.className, phaseNames[phase], count,
+                        stats.totalTime[phase].get(), stats.maxTime[phase].get(), histogram));
+            }
+        }
+        timings.sort(Comparator.comparingLong(ResourceTiming::getMaxTime).reversed());
+        return timings;
+    }
+}
@@ -27,14 +27,58 @@ import org.crac.CheckpointException;
 import org.crac.Resource;
 import org.crac.RestoreException;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.util.ArrayList;
-import java.util.List;
+import java.lang.reflect.Modifier;
 
 // Utility class, made public only for org.crac.management
 public class Proxy {
-    public static final Proxy instance;
+    private static final String COMPAT_PROPERTY = "org.crac.Core.Compat";
+
+    private static final boolean disabled = "none".equals(System.getProperty(COMPAT_PROPERTY));
+
+    // Detection is deferred until the implementation is first needed, so initializing
+    // Proxy itself, e.g. for isDisabled(), does not detect anything
+    private static final class Holder {
+        static final Proxy instance = disabled ? null : detect(System.getProperty(COMPAT_PROPERTY));
+
+        static {
+            Proxy.instance = instance;
+            if (instance != null) {
+                HeapTrimmer.install(instance);
+                // Registered ahead of other Resources, so they see the new epoch in afterRestore
+                RestoreCounter.install(instance);
+            }
+        }
+    }
+
+    // Method.invoke(Object, Object[]) and its unwrapping counterpart, used when
+    // a method cannot be linked directly
+    private static final class Reflective {
+        static final MethodHandle invoke;
+        static final MethodHandle rethrowCause;
+
+        static {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            try {
+                invoke = lookup.findVirtual(Method.class, "invoke",
+                        MethodType.methodType(Object.class, Object.class, Object[].class));
+                rethrowCause = lookup.findStatic(Reflective.class, "rethrowCause",
+                        MethodType.methodType(Object.class, InvocationTargetException.class));
+            } catch (NoSuchMethodException | IllegalAccessException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        // Declared here, as private members of Proxy are not accessible from this class
+        // without nestmates, which are not compiled for Java 8
+        private static Object rethrowCause(InvocationTargetException ite) throws Throwable {
+            throw ite.getCause();
+        }
+    }
 
     private final Class<?> clsResource;
     private final Class<?> clsContext;
@@ -42,11 +86,20 @@ public class Proxy {
     private final Class<?> clsCheckpointException;
     private final Class<?> clsRestoreException;
 
-    private final Method checkpointRestore;
-    private final Method register;
+    // Methods of clsResource, resolved once for ResourceWrapper dispatch
+    final Method beforeCheckpoint;
+    final Method afterRestore;
+
+    // ()void, null if the implementation has no Core.checkpointRestore
+    private final MethodHandle checkpointRestore;
+    // (Object)void, bound to the global context
+    private final MethodHandle register;
 
     private final Object globalContext;
 
+    // Loaded from the package set by org.crac.Core.Compat, rather than from the JDK
+    private final boolean compat;
+
     private static Proxy loadProxy(String packageName) {
         try {
             return new Proxy(packageName);
@@ -55,9 +108,29 @@ public class Proxy {
         }
     }
 
-    static {
+    /**
+     * @deprecated Use {@link #getInstance()}. Kept for binary compatibility. The field is {@code null}
+     * until {@code getInstance()} detects the implementation, as reading it does not detect anything.
+     */
+    @Deprecated
+    public static volatile Proxy instance;
+
+    // Returns the implementation, or null if there is none. Setting org.crac.Core.Compat
+    // to "none" pins the result to null without probing the runtime.
+    public static Proxy getInstance() {
+        return Holder.instance;
+    }
+
+    // Whether org.crac.Core.Compat is "none"
+    public static boolean isDisabled() {
+        return disabled;
+    }
+
+    static Proxy detect(String propCompatImpl) {
         Proxy candidate = null;
-        String propCompatImpl = System.getProperty("org.crac.Core.Compat");
+        if ("none".equals(propCompatImpl)) {
+            return null;
+        }
         if (propCompatImpl != null) {
             candidate = loadProxy(propCompatImpl);
         }
@@ -70,21 +143,26 @@ public class Proxy {
             candidate = loadProxy("jdk.crac");
         }
 
-        instance = candidate;
+        return candidate;
     }
 
     private Proxy(String pkg)
             throws ClassNotFoundException, NoSuchMethodException, IllegalAccessException, InvocationTargetException {
 
+        compat = !pkg.equals("javax.crac") && !pkg.equals("jdk.crac");
         clsResource = Class.forName(pkg + ".Resource");
         clsContext = Class.forName(pkg + ".Context");
         clsCore = Class.forName(pkg + ".Core");
         clsCheckpointException = Class.forName(pkg + ".CheckpointException");
         clsRestoreException = Class.forName(pkg + ".RestoreException");
 
-        Method checkpointRestore = null;
+        beforeCheckpoint = clsResource.getMethod("beforeCheckpoint", clsContext);
+        afterRestore = clsResource.getMethod("afterRestore", clsContext);
+
+        MethodHandle checkpointRestore = null;
         try {
-            checkpointRestore = clsCore.getMethod("checkpointRestore");
+            checkpointRestore = resolve(clsCore.getMethod("checkpointRestore"), null)
+                    .asType(MethodType.methodType(void.class));
         } catch (NoSuchMethodException e) {
             // checkpoint restore possible only through CRaCMxBean
         }
@@ -99,17 +177,50 @@ public class Proxy {
         }
         globalContext = getGlobalContext.invoke(null);
 
-        register = clsContext.getMethod("register", clsResource);
+        register = resolve(clsContext.getMethod("register", clsResource), globalContext)
+                .asType(MethodType.methodType(void.class, Object.class));
+    }
+
+    // Links the method once, so calls do not go through Method.invoke. If the method cannot
+    // be linked via the public lookup, falls back to reflective dispatch; in both cases
+    // exceptions thrown by the method propagate unwrapped.
+    public static MethodHandle resolve(Method method, Object receiver) throws IllegalAccessException {
+        boolean isStatic = Modifier.isStatic(method.getModifiers());
+        MethodHandle handle;
+        try {
+            handle = MethodHandles.publicLookup().unreflect(method);
+            return isStatic ? handle : handle.bindTo(receiver);
+        } catch (IllegalAccessException e) {
+            try {
+                method.setAccessible(true);
+            } catch (RuntimeException re) {
+                // Not accessible reflectively either
+                throw e;
+            }
+        }
+        handle = Reflective.invoke.bindTo(method)
+                .bindTo(isStatic ? null : receiver)
+                .asCollector(Object[].class, method.getParameterCount());
+        handle = MethodHandles.catchException(handle, InvocationTargetException.class, Reflective.rethrowCause);
+        return handle.asType(MethodType.methodType(method.getReturnType(), method.getParameterTypes()));
+    }
+
+    public boolean isCompat() {
+        return compat;
     }
 
     public void checkpointRestore() throws
             CheckpointException, RestoreException {
+        if (checkpointRestore == null) {
+            throw new UnsupportedOperationException();
+        }
+        Events.checkpointRequested();
         try {
-            checkpointRestore.invoke(null);
-        } catch (IllegalAccessException iae) {
-            handleExceptionFromCheckpoint(iae);
-        } catch (InvocationTargetException ite) {
-            handleExceptionFromCheckpoint(ite);
+            checkpointRestore.invokeExact();
+        } catch (Throwable t) {
+            rethrowFromCheckpoint(t);
+        } finally {
+            Events.checkpointRestoreCompleted();
         }
     }
 
@@ -120,7 +231,10 @@ public class Proxy {
     }
 
     public void handleExceptionFromCheckpoint(InvocationTargetException ite) throws CheckpointException, RestoreException {
-        Throwable cause = ite.getCause();
+        rethrowFromCheckpoint(ite.getCause());
+    }
+
+    public void rethrowFromCheckpoint(Throwable cause) throws CheckpointException, RestoreException {
         if (clsCheckpointException.isInstance(cause)) {
             CheckpointException checkpointException = new CheckpointException();
             for (Throwable t : cause.getSuppressed()) {
@@ -137,26 +251,49 @@ public class Proxy {
         handleExceptionFromCheckpoint(cause);
     }
 
-    void register(Resource resource) {
+    // Returns the wrapper of the Resource, which is registered at most once. The wrapper is
+    // held by a handle to be released, or pinned if the registration has no handle.
+    ResourceWrapper register(Resource resource, boolean handle) {
         // JDK register will maintain weak ref on proxy, so we have to provide
         // it and resourceWrapper same lifetime as enclosed Resource have.
         // ResourceWrapper and proxy will have strong links on each other.
         // ResourceWrapper will also have weak ref on Resource.
-        // All ResourceProxies are strongly reachable via resourceProxies.
-        // The list cleaned occasionally. Strong ref to ResourceWrapper cleared
-        // when its Resource became unreachable.
+        // ResourceWrappers are strongly reachable via the ResourceWrapper registry,
+        // and removed from it once their Resources are collected, or when unregistered.
+        ResourceWrapper resourceWrapper;
+        for (;;) {
+            resourceWrapper = new ResourceWrapper(resource);
+            // Held before it is visible to others, who might release the last handle otherwise
+            resourceWrapper.hold(handle);
+            ResourceWrapper registered = resourceWrapper.addToRegistry();
+            if (registered == resourceWrapper) {
+                break;
+            }
+            // Returned only once registered in the implementation, so it is notified about
+            // the next checkpoint. If that failed, the Resource is registered anew.
+            if (registered.hold(handle) && registered.awaitRegistration()) {
+                return registered;
+            }
+            // Unregistered concurrently, and removed from the registry by now
+        }
         try {
-            ResourceWrapper resourceWrapper = new ResourceWrapper(resource);
             Object proxy = java.lang.reflect.Proxy.newProxyInstance(
                     Proxy.class.getClassLoader(),
-                    new Class[]{clsResource},
+                    new Class<?>[]{clsResource},
                     resourceWrapper);
             resourceWrapper.setProxy(proxy);
-            register.invoke(globalContext, proxy);
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException(e);
-        } catch (InvocationTargetException e) {
-            throw new RuntimeException(e.getCause());
+            register.invokeExact(proxy);
+            resourceWrapper.registrationDone(true);
+        } catch (Throwable t) {
+            resourceWrapper.unregister();
+            resourceWrapper.registrationDone(false);
+            if (t instanceof RuntimeException) {
+                throw (RuntimeException) t;
+            } else if (t instanceof Error) {
+                throw (Error) t;
+            }
+            throw new RuntimeException(t);
         }
+        return resourceWrapper;
     }
 }
@@ -25,14 +25,24 @@ package org.crac.impl;
 
 import org.crac.Resource;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
 import java.lang.reflect.InvocationHandler;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 class ResourceWrapper extends WeakReference<Resource> implements InvocationHandler {
-    private static final WeakHashMap<Resource, ResourceWrapper> weakMap = new WeakHashMap<>();
+    // Keeps wrappers (and so proxies) reachable while their Resources are.
+    // A wrapper is enqueued when its Resource is collected, and then removed
+    // from the registry, so no scan over all wrappers is needed.
+    // Wrappers are equal if they refer to the same Resource, so a Resource
+    // is registered at most once.
+    private static final ConcurrentHashMap<ResourceWrapper, ResourceWrapper> registry = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<Resource> queue = new ReferenceQueue<>();
+
+    private final int hash;
 
     // proxy weakly registered in JDK, so we need prevent it collection
     private Object proxy;
@@ -42,33 +52,143 @@ class ResourceWrapper extends WeakReference<Resource> implements InvocationHandl
     // (latter is called regardless of beforeCheckpoint result).
     private Resource strongRef;
 
+    // Guarded by this. A Resource registered through Context.register stays registered until
+    // it is collected or unregistered explicitly, otherwise until all handles to it are closed.
+    private int handles;
+    private boolean pinned;
+    private boolean unregistered;
+
+    // Completed with whether the proxy was registered in the implementation
+    private final CompletableFuture<Boolean> registration = new CompletableFuture<>();
+
     void setProxy(Object proxy) {
         this.proxy = proxy;
     }
 
     ResourceWrapper(Resource referent) {
-        super(referent);
-        weakMap.put(referent, this);
+        super(referent, queue);
+        hash = System.identityHashCode(referent);
+        strongRef = null;
+    }
+
+    // Adds this wrapper to the registry, unless its Resource is registered already.
+    // Returns the wrapper in the registry.
+    ResourceWrapper addToRegistry() {
+        expungeStaleWrappers();
+        ResourceWrapper existing = registry.putIfAbsent(this, this);
+        if (existing != null) {
+            clear();
+            return existing;
+        }
+        return this;
+    }
+
+    static ResourceWrapper find(Resource resource) {
+        ResourceWrapper probe = new ResourceWrapper(resource);
+        try {
+            return registry.get(probe);
+        } finally {
+            probe.clear();
+        }
+    }
+
+    // Counts a registration through a handle, or pins the wrapper for a plain registration.
+    // Returns false if the wrapper is unregistered already, so the Resource has to be registered anew.
+    synchronized boolean hold(boolean handle) {
+        if (unregistered) {
+            return false;
+        }
+        if (handle) {
+            handles++;
+        } else {
+            pinned = true;
+        }
+        return true;
+    }
+
+    void registrationDone(boolean success) {
+        registration.complete(success);
+    }
+
+    // Waits until the proxy is registered in the implementation by the thread that added this
+    // wrapper to the registry. Returns false if that failed, and the wrapper is unregistered.
+    boolean awaitRegistration() {
+        return registration.join();
+    }
+
+    // Closes a handle, unregistering the wrapper when it was the last one and the wrapper is not pinned
+    synchronized void release() {
+        if (--handles == 0 && !pinned) {
+            unregister();
+        }
+    }
+
+    // The JDK still holds the proxy weakly, but the proxy does not reach the Resource
+    // anymore, and becomes collectable as soon as the registry drops this wrapper.
+    synchronized void unregister() {
+        unregistered = true;
+        registry.remove(this, this);
+        clear();
         strongRef = null;
+        proxy = null;
+    }
+
+    static int registeredCount() {
+        expungeStaleWrappers();
+        return registry.size();
+    }
+
+    private static void expungeStaleWrappers() {
+        for (Reference<? extends Resource> ref; (ref = queue.poll()) != null; ) {
+            registry.remove(ref, ref);
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof ResourceWrapper)) {
+            return false;
+        }
+        Resource r = get();
+        return r != null && r == ((ResourceWrapper) obj).get();
     }
 
     public Object invoke(Object proxy, Method m, Object[] args)
             throws Throwable {
-        String name = m.getName();
-        if ("beforeCheckpoint".equals(name)) {
+        if (m.getDeclaringClass() == Object.class) {
+            return invokeObjectMethod(proxy, m, args);
+        }
+        Proxy p = Proxy.getInstance();
+        if (m.equals(p.beforeCheckpoint)) {
             beforeCheckpoint();
-            return null;
-        } else if ("afterRestore".equals(name)) {
+        } else if (m.equals(p.afterRestore)) {
             afterRestore();
-            return null;
-        } else if ("toString".equals(name)) {
-            return toString();
         } else {
-            try {
-                return m.invoke(get(), args);
-            } catch (InvocationTargetException e) {
-                throw e.getCause();
-            }
+            throw new UnsupportedOperationException(m.toString());
+        }
+        return null;
+    }
+
+    // The proxy has identity semantics, so that the implementation may keep it in
+    // hash-based collections regardless of how the Resource defines equality.
+    private Object invokeObjectMethod(Object proxy, Method m, Object[] args) {
+        switch (m.getName()) {
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            case "toString":
+                return toString();
+            default:
+                throw new UnsupportedOperationException(m.toString());
         }
     }
 
@@ -76,7 +196,14 @@ class ResourceWrapper extends WeakReference<Resource> implements InvocationHandl
         Resource r = get();
         strongRef = r;
         if (r != null) {
-            r.beforeCheckpoint(GlobalContextWrapper.instance);
+            long start = NotificationStats.start();
+            Object event = Events.beginNotification(NotificationStats.CHECKPOINT);
+            try {
+                r.beforeCheckpoint(GlobalContextWrapper.instance);
+            } finally {
+                Events.endNotification(event, NotificationStats.CHECKPOINT, r.getClass());
+                NotificationStats.record(NotificationStats.CHECKPOINT, r.getClass(), start);
+            }
         }
     }
 
@@ -84,12 +211,19 @@ class ResourceWrapper extends WeakReference<Resource> implements InvocationHandl
         Resource r = get();
         strongRef = null;
         if (r != null) {
-            r.afterRestore(GlobalContextWrapper.instance);
+            long start = NotificationStats.start();
+            Object event = Events.beginNotification(NotificationStats.RESTORE);
+            try {
+                r.afterRestore(GlobalContextWrapper.instance);
+            } finally {
+                Events.endNotification(event, NotificationStats.RESTORE, r.getClass());
+                NotificationStats.record(NotificationStats.RESTORE, r.getClass(), start);
+            }
         }
     }
 
     @Override
     public String toString() {
-        return "org.crac.ResourceWrapper[" + get().toString() + "]";
+        return "org.crac.ResourceWrapper[" + get() + "]";
     }
 }
@@ -0,0 +1,91 @@
+// Copyright 2026 Azul Systems, Inc.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright notice,
+// this list of conditions and the following disclaimer in the documentation
+// and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+package org.crac.impl;
+
+import org.crac.Context;
+import org.crac.Resource;
+
+import java.util.concurrent.CompletableFuture;
+
+// Utility class, made public only for org.crac.util
+//
+// Counts restores for org.crac.util.RestoreEpoch. The driver Resource is registered when the
+// implementation is detected, ahead of other Resources registered through org.crac, so it is
+// notified about restore first and they see the new epoch in afterRestore. The class does not
+// depend on Proxy in its initializer, so it can be initialized from Proxy's without a cycle.
+public class RestoreCounter {
+    private static volatile long epoch;
+
+    // Guarded by RestoreCounter.class
+    private static CompletableFuture<Long> nextRestore = new CompletableFuture<>();
+
+    private static final Resource driver = new Resource() {
+        @Override
+        public void beforeCheckpoint(Context<? extends Resource> context) {
+        }
+
+        @Override
+        public void afterRestore(Context<? extends Resource> context) {
+            restored();
+        }
+    };
+
+    private RestoreCounter() {
+    }
+
+    static void install(Proxy proxy) {
+        // The class keeps the driver reachable
+        proxy.register(driver, false);
+    }
+
+    // Detects the implementation, if not yet, so restores are counted. Once Proxy.Holder
+    // is initialized, getInstance() is a read of a constant.
+    private static void detect() {
+        Proxy.getInstance();
+    }
+
+    public static long get() {
+        detect();
+        return epoch;
+    }
+
+    public static CompletableFuture<Long> onNextRestore() {
+        detect();
+        synchronized (RestoreCounter.class) {
+            // A dependent future, so callers cannot complete the shared one
+            return nextRestore.thenApply(e -> e);
+        }
+    }
+
+    private static void restored() {
+        CompletableFuture<Long> restore;
+        long e;
+        synchronized (RestoreCounter.class) {
+            e = ++epoch;
+            restore = nextRestore;
+            nextRestore = new CompletableFuture<>();
+        }
+        restore.complete(e);
+    }
+}
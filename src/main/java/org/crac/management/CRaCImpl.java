@@ -25,54 +25,165 @@
 package org.crac.management;
 
 import org.crac.CheckpointException;
-import org.crac.impl.Proxy;
+import org.crac.Context;
+import org.crac.Resource;
 import org.crac.RestoreException;
+import org.crac.impl.Events;
+import org.crac.impl.GlobalContextWrapper;
+import org.crac.impl.Proxy;
+import org.crac.util.RestoreEpoch;
 
+import javax.management.ListenerNotFoundException;
+import javax.management.MBeanNotificationInfo;
+import javax.management.Notification;
+import javax.management.NotificationBroadcasterSupport;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationFilter;
+import javax.management.NotificationListener;
 import javax.management.ObjectName;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
 import java.lang.management.PlatformManagedObject;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
-class CRaCImpl implements CRaCMXBean {
+class CRaCImpl implements CRaCMXBean, NotificationEmitter {
 
     private final Proxy proxy;
     private final PlatformManagedObject platformImpl;
-    private final Method getUptimeSinceRestore;
-    private final Method getRestoreTime;
-    private final Method checkpointRestore;
+    // ()long, bound to platformImpl
+    private final MethodHandle getUptimeSinceRestore;
+    private final MethodHandle getRestoreTime;
+    // ()void, bound to platformImpl; null if checkpoint is requested through Core
+    private final MethodHandle checkpointRestore;
+
+    // The restore time changes only on restore, so it is read once per restore epoch
+    private static final class RestoreTime {
+        final long epoch;
+        final long time;
+
+        RestoreTime(long epoch, long time) {
+            this.epoch = epoch;
+            this.time = time;
+        }
+    }
+
+    private volatile RestoreTime restoreTime = new RestoreTime(-1, -1);
+
+    // Without the platform MXBean, the restore is timed when the restore epoch changes, which happens
+    // before the restore notification of other Resources registered through org.crac
+    private static final class CompatRestore {
+        final long time;
+        final long nanoTime;
+
+        CompatRestore(long time, long nanoTime) {
+            this.time = time;
+            this.nanoTime = nanoTime;
+        }
+    }
+
+    private volatile CompatRestore compatRestore;
+
+    private final NotificationBroadcasterSupport broadcaster = new NotificationBroadcasterSupport(
+            new MBeanNotificationInfo(
+                    new String[]{ CHECKPOINT_STARTED, RESTORE_COMPLETED, CHECKPOINT_FAILED, RESTORE_FAILED },
+                    Notification.class.getName(),
+                    "Checkpoint and restore lifecycle"));
+    private final AtomicLong sequenceNumber = new AtomicLong();
+
+    // Notified for every checkpoint, including ones not requested through this bean. Like any Resource,
+    // it is notified in the order of registration, see CRaCMXBean.CHECKPOINT_STARTED.
+    private final Resource lifecycle = new Resource() {
+        @Override
+        public void beforeCheckpoint(Context<? extends Resource> context) {
+            sendNotification(CHECKPOINT_STARTED, "Checkpoint started");
+        }
+
+        @Override
+        public void afterRestore(Context<? extends Resource> context) {
+            sendNotification(RESTORE_COMPLETED, "Restore completed");
+        }
+    };
 
     CRaCImpl(Proxy proxy, Class<?> iface, PlatformManagedObject platformImpl)
             throws NoSuchMethodException {
         this.proxy = Objects.requireNonNull(proxy);
         this.platformImpl = Objects.requireNonNull(platformImpl);
-        this.getUptimeSinceRestore = iface.getMethod("getUptimeSinceRestore");
-        this.getRestoreTime = iface.getMethod("getRestoreTime");
-        Method cr = null;
+        this.getUptimeSinceRestore = resolve(iface.getMethod("getUptimeSinceRestore"), long.class);
+        this.getRestoreTime = resolve(iface.getMethod("getRestoreTime"), long.class);
+        MethodHandle cr = null;
         try {
-            cr = iface.getMethod("checkpointRestore");
+            cr = resolve(iface.getMethod("checkpointRestore"), void.class);
         } catch (NoSuchMethodException e) {
             // ignored; we'll use Core.checkpointRestore()
         }
         this.checkpointRestore = cr;
+        GlobalContextWrapper.instance.register(lifecycle);
+    }
+
+    // Implementation loaded from the package set by org.crac.Core.Compat
+    CRaCImpl(Proxy proxy) {
+        this.proxy = Objects.requireNonNull(proxy);
+        this.platformImpl = null;
+        this.getUptimeSinceRestore = null;
+        this.getRestoreTime = null;
+        this.checkpointRestore = null;
+        timeNextRestore();
+        GlobalContextWrapper.instance.register(lifecycle);
+    }
+
+    // The dependent action runs during the restore notification of the epoch driver
+    private void timeNextRestore() {
+        RestoreEpoch.onNextRestore().thenRun(() -> {
+            compatRestore = new CompatRestore(System.currentTimeMillis(), System.nanoTime());
+            timeNextRestore();
+        });
+    }
+
+    private MethodHandle resolve(Method method, Class<?> returnType) throws NoSuchMethodException {
+        try {
+            return Proxy.resolve(method, platformImpl).asType(MethodType.methodType(returnType));
+        } catch (IllegalAccessException e) {
+            NoSuchMethodException nsme = new NoSuchMethodException(method.toString());
+            nsme.initCause(e);
+            throw nsme;
+        }
     }
 
     @Override
     public long getUptimeSinceRestore() {
+        if (platformImpl == null) {
+            CompatRestore restore = compatRestore;
+            return restore == null ? -1 : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - restore.nanoTime);
+        }
         try {
-            return (long)getUptimeSinceRestore.invoke(platformImpl);
-        } catch (IllegalAccessException | InvocationTargetException e) {
+            return (long) getUptimeSinceRestore.invokeExact();
+        } catch (Throwable t) {
             return -1;
         }
     }
 
     @Override
     public long getRestoreTime() {
+        if (platformImpl == null) {
+            CompatRestore restore = compatRestore;
+            return restore == null ? -1 : restore.time;
+        }
+        long epoch = RestoreEpoch.get();
+        RestoreTime cached = restoreTime;
+        if (cached.epoch == epoch) {
+            return cached.time;
+        }
+        long time;
         try {
-            return (long)getRestoreTime.invoke(platformImpl);
-        } catch (IllegalAccessException | InvocationTargetException e) {
+            time = (long) getRestoreTime.invokeExact();
+        } catch (Throwable t) {
             return -1;
         }
+        restoreTime = new RestoreTime(epoch, time);
+        return time;
     }
 
     @Override
@@ -82,21 +193,56 @@ class CRaCImpl implements CRaCMXBean {
 
     @Override
     public void checkpointRestore() throws CheckpointException, RestoreException {
-        if (checkpointRestore != null) {
-            try {
-                checkpointRestore.invoke(platformImpl);
-            } catch (IllegalAccessException e) {
-                proxy.handleExceptionFromCheckpoint(e);
-            } catch (InvocationTargetException e) {
-                proxy.handleExceptionFromCheckpoint(e);
+        try {
+            if (checkpointRestore != null) {
+                Events.checkpointRequested();
+                try {
+                    checkpointRestore.invokeExact();
+                } catch (Throwable t) {
+                    proxy.rethrowFromCheckpoint(t);
+                } finally {
+                    Events.checkpointRestoreCompleted();
+                }
+            } else {
+                proxy.checkpointRestore();
             }
-        } else {
-            proxy.checkpointRestore();
+        } catch (CheckpointException e) {
+            sendNotification(CHECKPOINT_FAILED, "Checkpoint failed: " + e.getSuppressed().length + " exceptions");
+            throw e;
+        } catch (RestoreException e) {
+            sendNotification(RESTORE_FAILED, "Restore failed: " + e.getSuppressed().length + " exceptions");
+            throw e;
         }
     }
 
+    private void sendNotification(String type, String message) {
+        broadcaster.sendNotification(new Notification(type, this, sequenceNumber.incrementAndGet(),
+                System.currentTimeMillis(), message));
+    }
+
+    @Override
+    public void addNotificationListener(NotificationListener listener, NotificationFilter filter, Object handback) {
+        broadcaster.addNotificationListener(listener, filter, handback);
+    }
+
+    @Override
+    public void removeNotificationListener(NotificationListener listener) throws ListenerNotFoundException {
+        broadcaster.removeNotificationListener(listener);
+    }
+
+    @Override
+    public void removeNotificationListener(NotificationListener listener, NotificationFilter filter, Object handback)
+            throws ListenerNotFoundException {
+        broadcaster.removeNotificationListener(listener, filter, handback);
+    }
+
+    @Override
+    public MBeanNotificationInfo[] getNotificationInfo() {
+        return broadcaster.getNotificationInfo();
+    }
+
     @Override
     public ObjectName getObjectName() {
-        return platformImpl.getObjectName();
+        return platformImpl == null ? null : platformImpl.getObjectName();
     }
 }
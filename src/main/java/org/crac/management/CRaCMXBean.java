@@ -26,17 +26,46 @@ package org.crac.management;
 
 import org.crac.CheckpointException;
 import org.crac.RestoreException;
-import org.crac.impl.Proxy;
+import org.crac.impl.HeapTrimmer;
+import org.crac.impl.NotificationStats;
 
-import java.lang.management.ManagementFactory;
 import java.lang.management.PlatformManagedObject;
 import java.lang.management.RuntimeMXBean;
+import java.util.List;
 
 /**
  * Management interface for the CRaC functionality of the Java virtual machine.
  */
 public interface CRaCMXBean extends PlatformManagedObject {
 
+    /**
+     * Notification type emitted during checkpoint notification of the global {@code Context}.
+     * It is emitted by a {@code Resource} registered when the implementation of this bean is created, so
+     * {@code Resource}s registered after that are notified about the checkpoint before it is emitted,
+     * and ones registered before are notified after it.
+     */
+    String CHECKPOINT_STARTED = "org.crac.checkpoint.started";
+
+    /**
+     * Notification type emitted during restore notification of the global {@code Context}, after
+     * {@code Resource}s registered before the implementation of this bean was created are notified,
+     * and before ones registered after that. The global {@code Context} notifies about restore also when
+     * the checkpoint fails, so it is emitted then as well, followed by {@link #CHECKPOINT_FAILED}
+     * if the checkpoint was requested by {@link #checkpointRestore()}.
+     */
+    String RESTORE_COMPLETED = "org.crac.restore.completed";
+
+    /**
+     * Notification type emitted when a checkpoint requested by {@link #checkpointRestore()} fails
+     * and the execution continues in the original Java instance.
+     */
+    String CHECKPOINT_FAILED = "org.crac.checkpoint.failed";
+
+    /**
+     * Notification type emitted when a restore after a checkpoint requested by {@link #checkpointRestore()} fails.
+     */
+    String RESTORE_FAILED = "org.crac.restore.failed";
+
     /**
      * Returns the time since the Java virtual machine restore was initiated.
      * If the machine was not restored, returns -1.
@@ -79,30 +108,101 @@ public interface CRaCMXBean extends PlatformManagedObject {
     void checkpointRestore() throws CheckpointException, RestoreException;
 
     /**
-     * Returns the implementation of the MXBean.
+     * Returns the number of {@code Resource}s registered in the global {@code Context}
+     * through {@code org.crac} that are not yet garbage collected.
+     *
+     * @return number of registered {@code Resource}s.
+     */
+    default int getRegisteredResourceCount() {
+        return NotificationStats.getRegisteredResourceCount();
+    }
+
+    /**
+     * Returns the wall-clock time from the start of the first to the end of the last {@code beforeCheckpoint}
+     * notification of {@code Resource}s registered through {@code org.crac} during the last checkpoint.
+     * If no such notification happened, or the timing is not enabled, returns -1.
+     *
+     * @return duration of the notifications in nanoseconds.
+     */
+    default long getCheckpointNotificationTime() {
+        return NotificationStats.getCheckpointNotificationTime();
+    }
+
+    /**
+     * Returns the wall-clock time from the start of the first to the end of the last {@code afterRestore}
+     * notification of {@code Resource}s registered through {@code org.crac} during the last restore.
+     * If no such notification happened, or the timing is not enabled, returns -1.
+     *
+     * @return duration of the notifications in nanoseconds.
+     */
+    default long getRestoreNotificationTime() {
+        return NotificationStats.getRestoreNotificationTime();
+    }
+
+    /**
+     * Returns durations of notifications of {@code Resource}s registered through {@code org.crac},
+     * aggregated by the class of {@code Resource} and the notification method.
+     * The slowest {@code Resource}s, by the maximum duration of a notification, come first.
+     * The timing is enabled by setting the {@code org.crac.NotificationStats} system property to {@code true},
+     * otherwise the list is empty.
+     *
+     * @return durations of notifications.
+     */
+    default List<ResourceTiming> getResourceTimings() {
+        return NotificationStats.getResourceTimings();
+    }
+
+    /**
+     * Returns the used heap at the start of heap trimming during the last checkpoint, after the clear
+     * actions of caches registered by {@link org.crac.util.HeapTrimming#addCache(Runnable)} ran.
+     * If heap trimming is not enabled by the {@code org.crac.HeapTrimmer} system property or did not run, returns -1.
+     *
+     * @return the used heap in bytes.
+     */
+    default long getHeapUsedBeforeTrim() {
+        return HeapTrimmer.getHeapUsedBeforeTrim();
+    }
+
+    /**
+     * Returns the used heap at the end of heap trimming during the last checkpoint.
+     * If heap trimming is not enabled or did not run, returns -1.
+     *
+     * @return the used heap in bytes.
+     */
+    default long getHeapUsedAfterTrim() {
+        return HeapTrimmer.getHeapUsedAfterTrim();
+    }
+
+    /**
+     * Returns the committed heap at the end of heap trimming during the last checkpoint.
+     * If heap trimming is not enabled or did not run, returns -1.
+     *
+     * @return the committed heap in bytes.
+     */
+    default long getHeapCommittedAfterTrim() {
+        return HeapTrimmer.getHeapCommittedAfterTrim();
+    }
+
+    /**
+     * Returns the implementation of the MXBean. If the JDK implements CRaC, the implementation is also
+     * a {@link javax.management.NotificationEmitter} that emits notifications of the types
+     * {@link #CHECKPOINT_STARTED}, {@link #RESTORE_COMPLETED}, {@link #CHECKPOINT_FAILED}
+     * and {@link #RESTORE_FAILED}.
+     * <p>
+     * When the implementation is created, it is registered in the platform {@code MBeanServer} as
+     * {@code org.crac:type=CRaC}, so that remote JMX clients can read its attributes and subscribe to
+     * its notifications, provided an {@code MBeanServer} exists already, e.g. with the JMX agent started,
+     * or the {@code org.crac.management.register} system property is {@code true}. Otherwise the platform
+     * {@code MBeanServer}, which is costly to create, is not created, and the notifications are delivered
+     * to listeners in the Java instance only.
      *
      * @return implementation of the MXBean.
      */
     static CRaCMXBean getCRaCMXBean() {
-        Class<?> iface;
-        try {
-            iface = Class.forName("jdk.crac.management.CRaCMXBean");
-        } catch (ClassNotFoundException e) {
-            return new NoImpl();
-        }
-        @SuppressWarnings("unchecked")
-        PlatformManagedObject impl = ManagementFactory.getPlatformMXBean((Class<? extends PlatformManagedObject>) iface);
-        if (impl == null) {
-            return new NoImpl();
-        }
-        Proxy proxy = Proxy.instance;
-        if (proxy == null) {
+        CRaCMXBean bean = CRaCMXBeanHolder.instance;
+        if (bean == null) {
             throw new IllegalStateException("Proxy instantiation failed (CRaCMXBean present but incompatible JDK?)");
         }
-        try {
-            return new CRaCImpl(proxy, iface, impl);
-        } catch (NoSuchMethodException e) {
-            return new NoImpl();
-        }
+        return bean;
     }
 }
@@ -0,0 +1,112 @@
+// Copyright 2026 Azul Systems, Inc.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright notice,
+// this list of conditions and the following disclaimer in the documentation
+// and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package org.crac.management;
+
+import org.crac.impl.Proxy;
+
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.NotificationBroadcasterSupport;
+import javax.management.NotificationEmitter;
+import javax.management.ObjectName;
+import javax.management.StandardEmitterMBean;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.lang.management.PlatformManagedObject;
+
+// The implementation is created once, so that listeners of its notifications
+// receive them regardless of where the bean was obtained.
+final class CRaCMXBeanHolder {
+    // null if the JDK provides the MXBean, but the CRaC API could not be found.
+    // With org.crac.Core.Compat=none, the JDK is not probed, and the no-op implementation is used.
+    static final CRaCMXBean instance = register(Proxy.isDisabled() ? new NoImpl() : create(Proxy.getInstance()));
+
+    static final String OBJECT_NAME = "org.crac:type=CRaC";
+
+    private CRaCMXBeanHolder() {
+    }
+
+    static CRaCMXBean create(Proxy proxy) {
+        if (proxy != null && proxy.isCompat()) {
+            // Must be consistent with org.crac.Core even if the JDK provides the MXBean
+            return new CRaCImpl(proxy);
+        }
+        Class<?> iface;
+        try {
+            iface = Class.forName("jdk.crac.management.CRaCMXBean");
+        } catch (ClassNotFoundException e) {
+            return new NoImpl();
+        }
+        @SuppressWarnings("unchecked")
+        PlatformManagedObject impl = ManagementFactory.getPlatformMXBean((Class<? extends PlatformManagedObject>) iface);
+        if (impl == null) {
+            return new NoImpl();
+        }
+        if (proxy == null) {
+            return null;
+        }
+        try {
+            return new CRaCImpl(proxy, iface, impl);
+        } catch (NoSuchMethodException e) {
+            return new NoImpl();
+        }
+    }
+
+    // Creating the platform MBeanServer takes long, so it is only used if JMX is in use already
+    private static CRaCMXBean register(CRaCMXBean bean) {
+        if (bean == null) {
+            return null;
+        }
+        try {
+            if (Boolean.getBoolean("org.crac.management.register")
+                    || !MBeanServerFactory.findMBeanServer(null).isEmpty()) {
+                register(bean, ManagementFactory.getPlatformMBeanServer());
+            }
+        } catch (JMException | SecurityException e) {
+            // Not available remotely
+        }
+        return bean;
+    }
+
+    static void register(CRaCMXBean bean, MBeanServer server) throws JMException {
+        NotificationEmitter emitter = bean instanceof NotificationEmitter
+                ? (NotificationEmitter) bean : new NotificationBroadcasterSupport();
+        server.registerMBean(new StandardEmitterMBean(bean, CRaCMXBean.class, true, emitter) {
+            // The static getCRaCMXBean() would be exposed as an attribute
+            @Override
+            public MBeanInfo getMBeanInfo() {
+                MBeanInfo info = super.getMBeanInfo();
+                MBeanAttributeInfo[] attributes = Arrays.stream(info.getAttributes())
+                        .filter(a -> !a.getName().equals("CRaCMXBean"))
+                        .toArray(MBeanAttributeInfo[]::new);
+                return new MBeanInfo(info.getClassName(), info.getDescription(), attributes,
+                        info.getConstructors(), info.getOperations(), info.getNotifications(), info.getDescriptor());
+            }
+        }, new ObjectName(OBJECT_NAME));
+    }
+}
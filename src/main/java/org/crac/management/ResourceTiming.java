@@ -0,0 +1,124 @@
+// Copyright 2026 Azul Systems, Inc.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright notice,
+// this list of conditions and the following disclaimer in the documentation
+// and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package org.crac.management;
+
+import java.util.Arrays;
+
+/**
+ * Durations of notifications of {@code Resource}s of a class, for a single notification method.
+ * Only {@code Resource}s registered in the global {@code Context} through {@code org.crac} are accounted.
+ *
+ * @see CRaCMXBean#getResourceTimings()
+ */
+public final class ResourceTiming {
+    private final String resourceClass;
+    private final String phase;
+    private final long count;
+    private final long totalTime;
+    private final long maxTime;
+    private final long[] histogram;
+
+    /**
+     * Constructs a {@code ResourceTiming}.
+     *
+     * @param resourceClass name of the class of {@code Resource}s
+     * @param phase name of the notification method, {@code beforeCheckpoint} or {@code afterRestore}
+     * @param count number of notifications
+     * @param totalTime total duration of the notifications in nanoseconds
+     * @param maxTime maximum duration of a notification in nanoseconds
+     * @param histogram number of notifications by duration, see {@link #getHistogram()}
+     */
+    public ResourceTiming(String resourceClass, String phase, long count, long totalTime, long maxTime,
+                          long[] histogram) {
+        this.resourceClass = resourceClass;
+        this.phase = phase;
+        this.count = count;
+        this.totalTime = totalTime;
+        this.maxTime = maxTime;
+        this.histogram = histogram.clone();
+    }
+
+    /**
+     * Returns the name of the class of {@code Resource}s.
+     *
+     * @return the name of the class.
+     */
+    public String getResourceClass() {
+        return resourceClass;
+    }
+
+    /**
+     * Returns the name of the notification method, {@code beforeCheckpoint} or {@code afterRestore}.
+     *
+     * @return the name of the notification method.
+     */
+    public String getPhase() {
+        return phase;
+    }
+
+    /**
+     * Returns the number of notifications.
+     *
+     * @return the number of notifications.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the total duration of the notifications.
+     *
+     * @return the total duration in nanoseconds.
+     */
+    public long getTotalTime() {
+        return totalTime;
+    }
+
+    /**
+     * Returns the maximum duration of a notification.
+     *
+     * @return the maximum duration in nanoseconds.
+     */
+    public long getMaxTime() {
+        return maxTime;
+    }
+
+    /**
+     * Returns the number of notifications by duration. The element {@code i} is the number of notifications
+     * that took less than 2<sup>i</sup> nanoseconds, but not less than 2<sup>i-1</sup> nanoseconds.
+     *
+     * @return the histogram of durations.
+     */
+    public long[] getHistogram() {
+        return histogram.clone();
+    }
+
+    @Override
+    public String toString() {
+        return "ResourceTiming[" + resourceClass + "." + phase
+                + ", count=" + count + ", totalTime=" + totalTime + ", maxTime=" + maxTime
+                + ", histogram=" + Arrays.toString(histogram) + "]";
+    }
+}
@@ -0,0 +1,81 @@
+// Copyright 2026 Azul Systems, Inc.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright notice,
+// this list of conditions and the following disclaimer in the documentation
+// and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+package org.crac.nio;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+
+// Releases the native memory of direct buffers explicitly, rather than when they are garbage collected
+final class Buffers {
+    // (ByteBuffer)void, or null if explicit release is not available
+    private static final MethodHandle free = resolveFree();
+
+    private Buffers() {
+    }
+
+    private static MethodHandle resolveFree() {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            // JDK 9 and later
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            return lookup.unreflect(invokeCleaner).bindTo(theUnsafe.get(null));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // not available
+        }
+        try {
+            // JDK 8: ((sun.nio.ch.DirectBuffer) buffer).cleaner().clean()
+            ByteBuffer probe = ByteBuffer.allocateDirect(1);
+            Method cleaner = probe.getClass().getMethod("cleaner");
+            cleaner.setAccessible(true);
+            Method clean = cleaner.getReturnType().getMethod("clean");
+            clean.setAccessible(true);
+            MethodHandle handle = MethodHandles.filterReturnValue(lookup.unreflect(cleaner),
+                    lookup.unreflect(clean));
+            handle.invoke(probe);
+            return handle.asType(MethodType.methodType(void.class, ByteBuffer.class));
+        } catch (Throwable t) {
+            return null;
+        }
+    }
+
+    // Releases the memory of a buffer allocated by ByteBuffer.allocateDirect, which must not be used afterwards.
+    // Falls back to garbage collection if explicit release is not available.
+    static void free(ByteBuffer buffer) {
+        if (free == null || !buffer.isDirect()) {
+            return;
+        }
+        try {
+            free.invokeExact(buffer);
+        } catch (Throwable t) {
+            // Left to garbage collection
+        }
+    }
+}
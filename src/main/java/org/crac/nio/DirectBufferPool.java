@@ -0,0 +1,396 @@
+// Copyright 2026 Azul Systems, Inc.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright notice,
+// this list of conditions and the following disclaimer in the documentation
+// and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+package org.crac.nio;
+
+import org.crac.Context;
+import org.crac.Resource;
+
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A pool of direct {@code ByteBuffer}s, which releases the native memory of idle buffers on checkpoint
+ * so that it is not part of the image.
+ *
+ * <p>Buffers are grouped in size classes of powers of two between the minimum and the maximum size.
+ * The buffers of a size class are slices of slabs, direct buffers of the slab size, which are allocated
+ * when the size class runs out of buffers. Each thread caches a few buffers per size class, so that
+ * acquiring and closing buffers in the steady state does not allocate and rarely synchronizes.
+ * Requests over the maximum size are served by unpooled direct buffers.
+ * <pre>{@code
+ * try (DirectBufferPool.PooledBuffer pooled = pool.acquire(8192)) {
+ *     ByteBuffer buffer = pooled.buffer();
+ *     channel.read(buffer);
+ *     ...
+ * }
+ * }</pre>
+ *
+ * <p>The pool registers itself in the global {@code Context}. On checkpoint notification, the thread caches
+ * are returned to the size classes, and the slabs of which no buffer is acquired are released. Where the Java
+ * runtime allows, their memory is freed at once, otherwise it is left to garbage collection. Slabs are allocated
+ * again on demand after restore, or on restore notification if {@link #setRestoreSlabs} is set; the memory of a
+ * slab is zeroed, and so touched, on allocation. A buffer must not be used after it is closed, as its memory may
+ * have been freed.
+ */
+public class DirectBufferPool {
+    // Buffers cached per thread and size class
+    private static final int CACHE_SIZE = 8;
+
+    private final int minShift;
+    private final int maxSize;
+    private final int slabSize;
+    private final SizeClass[] sizeClasses;
+    private volatile boolean restoreSlabs;
+
+    private final Queue<Cache> caches = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<Cache> cache = ThreadLocal.withInitial(this::newCache);
+    private final AtomicLong reservedBytes = new AtomicLong();
+
+    // Kept reachable by the pool, the global Context holds it weakly
+    private final Resource resource = new Resource() {
+        @Override
+        public void beforeCheckpoint(Context<? extends Resource> context) {
+            releaseIdle();
+        }
+
+        @Override
+        public void afterRestore(Context<? extends Resource> context) {
+            if (restoreSlabs) {
+                for (SizeClass sizeClass : sizeClasses) {
+                    sizeClass.restoreSlabs();
+                }
+            }
+        }
+    };
+
+    /**
+     * A buffer acquired from a {@link DirectBufferPool}, returned to the pool when closed.
+     */
+    public static final class PooledBuffer implements AutoCloseable {
+        private final SizeClass sizeClass;
+        private final Slab slab;
+        private final ByteBuffer buffer;
+        private boolean acquired;
+
+        PooledBuffer(SizeClass sizeClass, Slab slab, ByteBuffer buffer) {
+            this.sizeClass = sizeClass;
+            this.slab = slab;
+            this.buffer = buffer;
+        }
+
+        /**
+         * Returns the buffer, cleared and in big-endian byte order when acquired.
+         * Its capacity is at least the requested one.
+         *
+         * @return the buffer.
+         */
+        public ByteBuffer buffer() {
+            return buffer;
+        }
+
+        /**
+         * Returns the buffer to the pool. The buffer must not be used afterwards.
+         *
+         * @throws IllegalStateException if the buffer is closed already
+         */
+        @Override
+        public void close() {
+            if (!acquired) {
+                throw new IllegalStateException("closed already");
+            }
+            acquired = false;
+            if (sizeClass == null) {
+                Buffers.free(buffer);
+            } else {
+                sizeClass.pool().release(this);
+            }
+        }
+    }
+
+    private static final class Slab {
+        final ByteBuffer memory;
+        // Buffers in the free stack of the size class, guarded by the size class
+        int free;
+        boolean released;
+
+        Slab(ByteBuffer memory, int count) {
+            this.memory = memory;
+            this.free = count;
+        }
+    }
+
+    private final class SizeClass {
+        final int size;
+        final int perSlab;
+        // Guarded by this
+        private final List<Slab> slabs = new ArrayList<>();
+        private PooledBuffer[] stack = new PooledBuffer[0];
+        private int top;
+        private int releasedSlabs;
+
+        SizeClass(int size) {
+            this.size = size;
+            this.perSlab = Math.max(1, slabSize / size);
+        }
+
+        DirectBufferPool pool() {
+            return DirectBufferPool.this;
+        }
+
+        synchronized PooledBuffer pop() {
+            if (top == 0) {
+                addSlab();
+            }
+            PooledBuffer buffer = stack[--top];
+            stack[top] = null;
+            buffer.slab.free--;
+            return buffer;
+        }
+
+        synchronized void push(PooledBuffer buffer) {
+            stack[top++] = buffer;
+            buffer.slab.free++;
+        }
+
+        private void addSlab() {
+            ByteBuffer memory = ByteBuffer.allocateDirect(size * perSlab);
+            Slab slab = new Slab(memory, perSlab);
+            slabs.add(slab);
+            reservedBytes.addAndGet(memory.capacity());
+            if (stack.length < slabs.size() * perSlab) {
+                stack = Arrays.copyOf(stack, slabs.size() * perSlab);
+            }
+            for (int i = 0; i < perSlab; i++) {
+                ByteBuffer view = memory.duplicate();
+                view.limit((i + 1) * size).position(i * size);
+                stack[top++] = new PooledBuffer(this, slab, view.slice());
+            }
+        }
+
+        // Releases the slabs with all their buffers in the stack
+        synchronized void releaseIdle() {
+            List<Slab> released = new ArrayList<>();
+            for (Iterator<Slab> it = slabs.iterator(); it.hasNext(); ) {
+                Slab slab = it.next();
+                if (slab.free == perSlab) {
+                    slab.released = true;
+                    it.remove();
+                    released.add(slab);
+                }
+            }
+            if (released.isEmpty()) {
+                return;
+            }
+            int kept = 0;
+            for (int i = 0; i < top; i++) {
+                if (!stack[i].slab.released) {
+                    stack[kept++] = stack[i];
+                }
+            }
+            Arrays.fill(stack, kept, top, null);
+            top = kept;
+            stack = Arrays.copyOf(stack, slabs.size() * perSlab);
+            releasedSlabs = released.size();
+            // No buffer of the released slabs is reachable from the pool or acquired
+            for (Slab slab : released) {
+                reservedBytes.addAndGet(-slab.memory.capacity());
+                Buffers.free(slab.memory);
+            }
+        }
+
+        synchronized void restoreSlabs() {
+            for (; releasedSlabs > 0; releasedSlabs--) {
+                addSlab();
+            }
+        }
+    }
+
+    private static final class Cache {
+        final WeakReference<Thread> owner = new WeakReference<>(Thread.currentThread());
+        // Held by the owner while using the cache, and by the checkpoint notification while flushing it
+        final AtomicBoolean busy = new AtomicBoolean();
+        final PooledBuffer[][] buffers;
+        final int[] counts;
+
+        Cache(int sizeClasses) {
+            buffers = new PooledBuffer[sizeClasses][CACHE_SIZE];
+            counts = new int[sizeClasses];
+        }
+    }
+
+    /**
+     * Creates a {@code DirectBufferPool}.
+     *
+     * @param minSize the capacity of buffers of the smallest size class, rounded up to a power of two
+     * @param maxSize the capacity of buffers of the largest size class, rounded up to a power of two
+     * @param slabSize the capacity of slabs, which hold at least one buffer
+     * @throws IllegalArgumentException if {@code minSize} is not positive, {@code maxSize} is less than
+     *                                  {@code minSize} or over 2<sup>30</sup>, or {@code slabSize} is not positive
+     */
+    public DirectBufferPool(int minSize, int maxSize, int slabSize) {
+        if (minSize <= 0 || maxSize < minSize || maxSize > 1 << 30 || slabSize <= 0) {
+            throw new IllegalArgumentException("invalid sizes: " + minSize + ", " + maxSize + ", " + slabSize);
+        }
+        this.minShift = shift(minSize);
+        this.maxSize = 1 << shift(maxSize);
+        this.slabSize = slabSize;
+        this.sizeClasses = new SizeClass[shift(maxSize) - minShift + 1];
+        for (int i = 0; i < sizeClasses.length; i++) {
+            sizeClasses[i] = new SizeClass(1 << (minShift + i));
+        }
+        Context.getGlobalContext().register(resource);
+    }
+
+    Resource getResource() {
+        return resource;
+    }
+
+    private static int shift(int size) {
+        return 32 - Integer.numberOfLeadingZeros(size - 1);
+    }
+
+    private Cache newCache() {
+        // Caches of terminated threads are flushed at checkpoint, and dropped when another thread starts using the pool
+        for (Iterator<Cache> it = caches.iterator(); it.hasNext(); ) {
+            Cache c = it.next();
+            if (c.owner.get() == null) {
+                flush(c);
+                it.remove();
+            }
+        }
+        Cache c = new Cache(sizeClasses.length);
+        caches.add(c);
+        return c;
+    }
+
+    /**
+     * Sets whether slabs released on checkpoint are allocated again on restore notification,
+     * rather than when buffers are acquired. By default, they are allocated on demand.
+     *
+     * @param restoreSlabs true to allocate the slabs on restore notification
+     */
+    public void setRestoreSlabs(boolean restoreSlabs) {
+        this.restoreSlabs = restoreSlabs;
+    }
+
+    /**
+     * Returns the native memory held by the slabs of the pool.
+     *
+     * @return the size of the slabs in bytes.
+     */
+    public long getReservedBytes() {
+        return reservedBytes.get();
+    }
+
+    /**
+     * Acquires a direct buffer with at least the given capacity.
+     * The buffer must be closed when no longer used.
+     *
+     * @param capacity the minimum capacity
+     * @return the acquired buffer.
+     * @throws IllegalArgumentException if {@code capacity} is negative
+     */
+    public PooledBuffer acquire(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("negative capacity: " + capacity);
+        }
+        PooledBuffer buffer;
+        if (capacity > maxSize) {
+            buffer = new PooledBuffer(null, null, ByteBuffer.allocateDirect(capacity));
+        } else {
+            int index = Math.max(0, shift(Math.max(1, capacity)) - minShift);
+            buffer = null;
+            Cache c = cache.get();
+            // Fails only while the checkpoint notification flushes the cache
+            if (c.busy.compareAndSet(false, true)) {
+                int count = c.counts[index];
+                if (count > 0) {
+                    buffer = c.buffers[index][--count];
+                    c.buffers[index][count] = null;
+                    c.counts[index] = count;
+                }
+                c.busy.set(false);
+            }
+            if (buffer == null) {
+                buffer = sizeClasses[index].pop();
+            }
+            buffer.buffer.clear();
+            buffer.buffer.order(ByteOrder.BIG_ENDIAN);
+        }
+        buffer.acquired = true;
+        return buffer;
+    }
+
+    private void release(PooledBuffer buffer) {
+        int index = shift(buffer.sizeClass.size) - minShift;
+        Cache c = cache.get();
+        if (c.busy.compareAndSet(false, true)) {
+            int count = c.counts[index];
+            if (count < CACHE_SIZE) {
+                c.buffers[index][count] = buffer;
+                c.counts[index] = count + 1;
+                buffer = null;
+            }
+            c.busy.set(false);
+        }
+        if (buffer != null) {
+            buffer.sizeClass.push(buffer);
+        }
+    }
+
+    private void flush(Cache c) {
+        while (!c.busy.compareAndSet(false, true)) {
+            Thread.yield();
+        }
+        try {
+            for (int index = 0; index < sizeClasses.length; index++) {
+                for (int i = 0; i < c.counts[index]; i++) {
+                    sizeClasses[index].push(c.buffers[index][i]);
+                    c.buffers[index][i] = null;
+                }
+                c.counts[index] = 0;
+            }
+        } finally {
+            c.busy.set(false);
+        }
+    }
+
+    private void releaseIdle() {
+        for (Cache c : caches) {
+            flush(c);
+        }
+        for (SizeClass sizeClass : sizeClasses) {
+            sizeClass.releaseIdle();
+        }
+    }
+}
@@ -0,0 +1,279 @@
+// Copyright 2026 Azul Systems, Inc.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright notice,
+// this list of conditions and the following disclaimer in the documentation
+// and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+package org.crac.nio;
+
+import org.crac.Context;
+import org.crac.Resource;
+import org.crac.concurrent.CheckpointGate;
+import org.crac.util.RestoreEpoch;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A region of a file mapped into memory, which is unmapped on checkpoint and mapped again on first access
+ * after restore, so that the mapping is neither part of the image nor blocks the checkpoint.
+ *
+ * <p>The mapping is accessed between {@link #acquire()} and {@link Access#close()}:
+ * <pre>{@code
+ * try (MappedRegion.Access access = region.acquire()) {
+ *     long value = access.buffer().getLong(offset);
+ * }
+ * }</pre>
+ * The region registers itself in the global {@code Context}. On checkpoint notification it stops new accesses,
+ * waits until the current ones complete, at most the drain timeout, then forces changes of a
+ * {@link FileChannel.MapMode#READ_WRITE} mapping to the file and unmaps it. Accesses after that wait until restore.
+ * The file is mapped when first accessed, and is not kept open while mapped.
+ *
+ * <p>The buffer of a mapping is shared by all accesses, so they should use absolute get and put methods,
+ * or a {@code duplicate()} of it. The buffer must not be used after the access is closed: each {@code Mapping}
+ * belongs to a restore epoch, and once it is unmapped, {@link Mapping#buffer()} throws instead of returning
+ * a buffer that no longer refers to the file. {@link Access#buffer()} throws after the access is closed. Where the Java runtime does not allow unmapping explicitly,
+ * the mapping is released by garbage collection.
+ */
+public class MappedRegion {
+    private final Path file;
+    private final FileChannel.MapMode mode;
+    private final long position;
+    private final long size;
+    private final CheckpointGate gate;
+
+    private final Object mapLock = new Object();
+    private volatile Mapping current;
+
+    // Kept reachable by the region, the global Context holds it weakly
+    private final Resource resource = new Resource() {
+        @Override
+        public void beforeCheckpoint(Context<? extends Resource> context) throws Exception {
+            gate.beforeCheckpoint(context);
+            unmap();
+        }
+
+        @Override
+        public void afterRestore(Context<? extends Resource> context) {
+            gate.afterRestore(context);
+        }
+    };
+
+    /**
+     * The mapping of a {@link MappedRegion}, shared by accesses until the region is unmapped on checkpoint.
+     */
+    public final class Mapping {
+        private final MappedByteBuffer buffer;
+        private final long epoch;
+        private volatile boolean valid = true;
+
+        Mapping(MappedByteBuffer buffer, long epoch) {
+            this.buffer = buffer;
+            this.epoch = epoch;
+        }
+
+        /**
+         * Returns the mapped buffer.
+         *
+         * @return the buffer.
+         * @throws IllegalStateException if the mapping was unmapped
+         */
+        public MappedByteBuffer buffer() {
+            if (!valid) {
+                throw new IllegalStateException("mapping of " + file + " from restore epoch " + epoch + " is unmapped");
+            }
+            return buffer;
+        }
+
+        /**
+         * Returns the {@link RestoreEpoch} in which the file was mapped.
+         *
+         * @return the restore epoch.
+         */
+        public long getEpoch() {
+            return epoch;
+        }
+
+        /**
+         * Returns whether the mapping is still mapped.
+         *
+         * @return true if the buffer may be used.
+         */
+        public boolean isValid() {
+            return valid;
+        }
+    }
+
+    /**
+     * An access to the mapping of a {@link MappedRegion}, returned by {@link MappedRegion#acquire()}.
+     * The region is not unmapped until the access is closed.
+     */
+    public final class Access implements AutoCloseable {
+        private final Mapping mapping;
+        private boolean closed;
+
+        Access(Mapping mapping) {
+            this.mapping = mapping;
+        }
+
+        /**
+         * Returns the mapped buffer.
+         *
+         * @return the buffer.
+         * @throws IllegalStateException if the access is closed
+         */
+        public MappedByteBuffer buffer() {
+            if (closed) {
+                throw new IllegalStateException("closed already");
+            }
+            return mapping.buffer();
+        }
+
+        /**
+         * Returns the mapping accessed.
+         *
+         * @return the mapping.
+         */
+        public Mapping getMapping() {
+            return mapping;
+        }
+
+        /**
+         * Ends the access.
+         *
+         * @throws IllegalStateException if the access is closed already
+         */
+        @Override
+        public void close() {
+            if (closed) {
+                throw new IllegalStateException("closed already");
+            }
+            closed = true;
+            gate.exit();
+        }
+    }
+
+    /**
+     * Creates a {@code MappedRegion} that waits for accesses on checkpoint without a timeout.
+     *
+     * @param file the file to map
+     * @param mode the mapping mode
+     * @param position the position within the file at which the region starts
+     * @param size the size of the region
+     * @throws IllegalArgumentException if {@code position} or {@code size} is negative,
+     *                                  or {@code size} is greater than {@link Integer#MAX_VALUE}
+     */
+    public MappedRegion(Path file, FileChannel.MapMode mode, long position, long size) {
+        this(file, mode, position, size, Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Creates a {@code MappedRegion} that waits for accesses on checkpoint at most {@code drainTimeout}.
+     * If the accesses do not complete in time, the checkpoint notification fails with a
+     * {@link java.util.concurrent.TimeoutException} and the region stays mapped.
+     *
+     * @param file the file to map
+     * @param mode the mapping mode
+     * @param position the position within the file at which the region starts
+     * @param size the size of the region
+     * @param drainTimeout maximum time to wait for accesses on checkpoint
+     * @param unit {@code TimeUnit} of {@code drainTimeout}
+     * @throws IllegalArgumentException if {@code position}, {@code size} or {@code drainTimeout} is negative,
+     *                                  or {@code size} is greater than {@link Integer#MAX_VALUE}
+     */
+    public MappedRegion(Path file, FileChannel.MapMode mode, long position, long size,
+                        long drainTimeout, TimeUnit unit) {
+        if (position < 0 || size < 0 || size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("invalid region: " + position + ", " + size);
+        }
+        this.file = Objects.requireNonNull(file);
+        this.mode = Objects.requireNonNull(mode);
+        this.position = position;
+        this.size = size;
+        this.gate = new CheckpointGate(drainTimeout, unit);
+        Context.getGlobalContext().register(resource);
+    }
+
+    Resource getResource() {
+        return resource;
+    }
+
+    /**
+     * Starts an access to the mapping, mapping the file if it is not mapped.
+     * Waits until restore if the region is being unmapped for a checkpoint.
+     *
+     * @return the access, to be closed when it ends.
+     * @throws IOException if the file cannot be mapped
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public Access acquire() throws IOException, InterruptedException {
+        gate.enter();
+        try {
+            Mapping mapping = current;
+            return new Access(mapping != null ? mapping : map());
+        } catch (IOException | RuntimeException | Error e) {
+            gate.exit();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns whether the file is mapped.
+     *
+     * @return true if mapped.
+     */
+    public boolean isMapped() {
+        return current != null;
+    }
+
+    private Mapping map() throws IOException {
+        synchronized (mapLock) {
+            if (current == null) {
+                // The mapping stays valid after the channel is closed
+                try (FileChannel channel = mode == FileChannel.MapMode.READ_ONLY
+                        ? FileChannel.open(file, StandardOpenOption.READ)
+                        : FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                    current = new Mapping(channel.map(mode, position, size), RestoreEpoch.get());
+                }
+            }
+            return current;
+        }
+    }
+
+    private void unmap() {
+        synchronized (mapLock) {
+            Mapping mapping = current;
+            if (mapping == null) {
+                return;
+            }
+            current = null;
+            mapping.valid = false;
+            if (mode == FileChannel.MapMode.READ_WRITE) {
+                mapping.buffer.force();
+            }
+            Buffers.free(mapping.buffer);
+        }
+    }
+}
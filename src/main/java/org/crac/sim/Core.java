@@ -0,0 +1,156 @@
+// Copyright 2026 Azul Systems, Inc.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright notice,
+// this list of conditions and the following disclaimer in the documentation
+// and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+package org.crac.sim;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulates checkpoint and restore in the running Java instance. No image is created:
+ * {@link #checkpointRestore()} notifies the {@code Resource}s registered in the global
+ * {@code Context} about checkpoint and then about restore.
+ * <p>
+ * The following system properties control the simulation:
+ * <ul>
+ *     <li>{@code org.crac.sim.downtime} - milliseconds to wait between a successful checkpoint
+ *     and the restore, simulating the time the Java instance does not run; {@code 0} by default.</li>
+ *     <li>{@code org.crac.sim.verbose} - if {@code true}, durations of phases are printed
+ *     to the standard error stream after each restore.</li>
+ * </ul>
+ */
+public class Core {
+    private static final Context<Resource> globalContext = new GlobalContext();
+
+    private static final long downtime = Long.getLong("org.crac.sim.downtime", 0);
+    private static final boolean verbose = Boolean.getBoolean("org.crac.sim.verbose");
+
+    // Durations of checkpoint notification, downtime and restore notification, in nanoseconds
+    private static volatile long[] lastPhaseTimes = { -1, -1, -1 };
+
+    private Core() {
+    }
+
+    /**
+     * Gets the global {@code Context} for simulated checkpoint/restore notifications.
+     *
+     * @return the global {@code Context}
+     */
+    public static Context<Resource> getGlobalContext() {
+        return globalContext;
+    }
+
+    /**
+     * Notifies the global {@code Context} about checkpoint and restore.
+     * Concurrent requests are performed one after another.
+     *
+     * @throws CheckpointException if an exception occurred during checkpoint
+     *                             notification. Exceptions thrown during the following
+     *                             restore notification are suppressed by it, too.
+     * @throws RestoreException    if an exception occurred during restore
+     *                             notification.
+     */
+    public static synchronized void checkpointRestore() throws CheckpointException, RestoreException {
+        long start = System.nanoTime();
+        CheckpointException checkpointException = null;
+        try {
+            globalContext.beforeCheckpoint(null);
+        } catch (CheckpointException e) {
+            checkpointException = e;
+        }
+        long checkpointed = System.nanoTime();
+        if (checkpointException == null && downtime > 0) {
+            sleep(downtime);
+        }
+        long restoring = System.nanoTime();
+        RestoreException restoreException = null;
+        try {
+            globalContext.afterRestore(null);
+        } catch (RestoreException e) {
+            restoreException = e;
+        }
+        long restored = System.nanoTime();
+
+        long[] times = { checkpointed - start, restoring - checkpointed, restored - restoring };
+        lastPhaseTimes = times;
+        if (verbose) {
+            System.err.printf("org.crac.sim: checkpoint %d us, downtime %d us, restore %d us%n",
+                    TimeUnit.NANOSECONDS.toMicros(times[0]),
+                    TimeUnit.NANOSECONDS.toMicros(times[1]),
+                    TimeUnit.NANOSECONDS.toMicros(times[2]));
+        }
+
+        if (checkpointException != null) {
+            if (restoreException != null) {
+                for (Throwable t : restoreException.getSuppressed()) {
+                    checkpointException.addSuppressed(t);
+                }
+            }
+            throw checkpointException;
+        }
+        if (restoreException != null) {
+            throw restoreException;
+        }
+    }
+
+    private static void sleep(long millis) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+        boolean interrupted = false;
+        for (long left; (left = deadline - System.nanoTime()) > 0; ) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(left);
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns the duration of checkpoint notification of the last {@link #checkpointRestore()}.
+     *
+     * @return duration in nanoseconds, or -1 if there was no checkpoint.
+     */
+    public static long getLastCheckpointTime() {
+        return lastPhaseTimes[0];
+    }
+
+    /**
+     * Returns the simulated downtime of the last {@link #checkpointRestore()}.
+     *
+     * @return duration in nanoseconds, or -1 if there was no checkpoint.
+     */
+    public static long getLastDowntime() {
+        return lastPhaseTimes[1];
+    }
+
+    /**
+     * Returns the duration of restore notification of the last {@link #checkpointRestore()}.
+     *
+     * @return duration in nanoseconds, or -1 if there was no checkpoint.
+     */
+    public static long getLastRestoreTime() {
+        return lastPhaseTimes[2];
+    }
+}
@@ -0,0 +1,120 @@
+// Copyright 2026 Azul Systems, Inc.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright notice,
+// this list of conditions and the following disclaimer in the documentation
+// and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+package org.crac.sim;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+// Follows the global context of the JDK: Resources are weakly referenced, notified about
+// checkpoint in the reverse order of registration and about restore in the order of
+// registration. All Resources notified about checkpoint are notified about restore, even
+// if the checkpoint failed.
+class GlobalContext extends Context<Resource> {
+    // Guarded by this
+    private final List<WeakReference<Resource>> resources = new ArrayList<>();
+
+    // Strongly referenced between checkpoint and restore
+    private List<Resource> notified = new ArrayList<>();
+
+    @Override
+    public void register(Resource resource) {
+        if (resource == null) {
+            throw new NullPointerException();
+        }
+        synchronized (this) {
+            resources.add(new WeakReference<>(resource));
+        }
+    }
+
+    private synchronized List<Resource> snapshot() {
+        List<Resource> live = new ArrayList<>(resources.size());
+        for (Iterator<WeakReference<Resource>> it = resources.iterator(); it.hasNext(); ) {
+            Resource r = it.next().get();
+            if (r == null) {
+                it.remove();
+            } else {
+                live.add(r);
+            }
+        }
+        return live;
+    }
+
+    @Override
+    public void beforeCheckpoint(Context<? extends Resource> context) throws CheckpointException {
+        List<Resource> live = snapshot();
+        notified = new ArrayList<>(live.size());
+        CheckpointException exception = null;
+        for (int i = live.size() - 1; i >= 0; i--) {
+            Resource r = live.get(i);
+            notified.add(r);
+            try {
+                r.beforeCheckpoint(this);
+            } catch (CheckpointException e) {
+                if (exception == null) {
+                    exception = new CheckpointException();
+                }
+                for (Throwable t : e.getSuppressed()) {
+                    exception.addSuppressed(t);
+                }
+            } catch (Exception e) {
+                if (exception == null) {
+                    exception = new CheckpointException();
+                }
+                exception.addSuppressed(e);
+            }
+        }
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    @Override
+    public void afterRestore(Context<? extends Resource> context) throws RestoreException {
+        List<Resource> toNotify = notified;
+        notified = new ArrayList<>();
+        RestoreException exception = null;
+        for (int i = toNotify.size() - 1; i >= 0; i--) {
+            try {
+                toNotify.get(i).afterRestore(this);
+            } catch (RestoreException e) {
+                if (exception == null) {
+                    exception = new RestoreException();
+                }
+                for (Throwable t : e.getSuppressed()) {
+                    exception.addSuppressed(t);
+                }
+            } catch (Exception e) {
+                if (exception == null) {
+                    exception = new RestoreException();
+                }
+                exception.addSuppressed(e);
+            }
+        }
+        if (exception != null) {
+            throw exception;
+        }
+    }
+}
@@ -0,0 +1,261 @@
+// Copyright 2026 Azul Systems, Inc.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright notice,
+// this list of conditions and the following disclaimer in the documentation
+// and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package org.crac.util;
+
+import org.crac.Context;
+import org.crac.Resource;
+import org.crac.RestoreException;
+import org.crac.impl.GlobalContextWrapper;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Changes of the execution environment between checkpoint and restore.
+ *
+ * <p>The environment is captured once for all users: on checkpoint notification and on restore notification
+ * of a {@code Resource} registered in the global {@code Context} when this class is initialized.
+ * Listeners are then called with the delta after each restore, so components can adapt to the new
+ * environment, e.g. resize pools:
+ * <pre>{@code
+ * EnvironmentDelta.addListener(delta -> {
+ *     if (delta.hasChanged(EnvironmentDelta.Change.PROCESSORS)) {
+ *         pool.resize(delta.getAfter().getAvailableProcessors());
+ *     }
+ * });
+ * }</pre>
+ */
+public final class EnvironmentDelta {
+
+    /**
+     * Kinds of changes of the environment.
+     */
+    public enum Change {
+        /**
+         * The number of available processors changed.
+         */
+        PROCESSORS,
+        /**
+         * The maximum memory of the Java virtual machine changed.
+         */
+        MAX_MEMORY,
+        /**
+         * The memory limit of the control group changed.
+         */
+        CONTAINER_MEMORY_LIMIT,
+        /**
+         * An environment variable was added, removed or changed.
+         */
+        ENVIRONMENT,
+        /**
+         * The host name changed.
+         */
+        HOSTNAME
+    }
+
+    private static final List<Consumer<? super EnvironmentDelta>> listeners = new CopyOnWriteArrayList<>();
+    private static volatile EnvironmentDelta last;
+
+    // Accessed by notifications only, which are not concurrent
+    private static EnvironmentSnapshot checkpointed;
+
+    private static final Resource tracker = new Resource() {
+        @Override
+        public void beforeCheckpoint(Context<? extends Resource> context) {
+            checkpointed = EnvironmentSnapshot.capture();
+        }
+
+        @Override
+        public void afterRestore(Context<? extends Resource> context) throws RestoreException {
+            EnvironmentSnapshot before = checkpointed;
+            checkpointed = null;
+            if (before != null) {
+                restored(new EnvironmentDelta(before, EnvironmentSnapshot.capture()));
+            }
+        }
+    };
+
+    static {
+        GlobalContextWrapper.instance.register(tracker);
+    }
+
+    private final EnvironmentSnapshot before;
+    private final EnvironmentSnapshot after;
+    private final Set<Change> changes;
+    private final Set<String> changedVariables;
+
+    /**
+     * Creates the delta between two snapshots.
+     *
+     * @param before the environment before the change
+     * @param after the environment after the change
+     * @throws NullPointerException if {@code before} or {@code after} is {@code null}
+     */
+    public EnvironmentDelta(EnvironmentSnapshot before, EnvironmentSnapshot after) {
+        this.before = Objects.requireNonNull(before);
+        this.after = Objects.requireNonNull(after);
+
+        Set<String> variables = new HashSet<>();
+        Map<String, String> envBefore = before.getEnvironment();
+        Map<String, String> envAfter = after.getEnvironment();
+        for (Map.Entry<String, String> e : envBefore.entrySet()) {
+            if (!e.getValue().equals(envAfter.get(e.getKey()))) {
+                variables.add(e.getKey());
+            }
+        }
+        for (String name : envAfter.keySet()) {
+            if (!envBefore.containsKey(name)) {
+                variables.add(name);
+            }
+        }
+        changedVariables = Collections.unmodifiableSet(variables);
+
+        Set<Change> changes = EnumSet.noneOf(Change.class);
+        if (before.getAvailableProcessors() != after.getAvailableProcessors()) {
+            changes.add(Change.PROCESSORS);
+        }
+        if (before.getMaxMemory() != after.getMaxMemory()) {
+            changes.add(Change.MAX_MEMORY);
+        }
+        if (before.getContainerMemoryLimit() != after.getContainerMemoryLimit()) {
+            changes.add(Change.CONTAINER_MEMORY_LIMIT);
+        }
+        if (!variables.isEmpty()) {
+            changes.add(Change.ENVIRONMENT);
+        }
+        if (!Objects.equals(before.getHostName(), after.getHostName())) {
+            changes.add(Change.HOSTNAME);
+        }
+        this.changes = Collections.unmodifiableSet(changes);
+    }
+
+    private static void restored(EnvironmentDelta delta) throws RestoreException {
+        last = delta;
+        RestoreException exception = null;
+        for (Consumer<? super EnvironmentDelta> listener : listeners) {
+            try {
+                listener.accept(delta);
+            } catch (RuntimeException e) {
+                if (exception == null) {
+                    exception = new RestoreException();
+                }
+                exception.addSuppressed(e);
+            }
+        }
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    /**
+     * Adds a listener called with the delta after each restore, during the restore notification
+     * of the global {@code Context}.
+     *
+     * @param listener the listener
+     * @return the registration removing the listener when closed.
+     * @throws NullPointerException if {@code listener} is {@code null}
+     */
+    public static Registration addListener(Consumer<? super EnvironmentDelta> listener) {
+        Objects.requireNonNull(listener);
+        listeners.add(listener);
+        return () -> listeners.remove(listener);
+    }
+
+    /**
+     * Returns the delta of the last restore.
+     *
+     * @return the delta, or {@code null} if there was no restore since this class was initialized.
+     */
+    public static EnvironmentDelta getLast() {
+        return last;
+    }
+
+    /**
+     * Returns the environment on checkpoint.
+     *
+     * @return the environment before the change.
+     */
+    public EnvironmentSnapshot getBefore() {
+        return before;
+    }
+
+    /**
+     * Returns the environment on restore.
+     *
+     * @return the environment after the change.
+     */
+    public EnvironmentSnapshot getAfter() {
+        return after;
+    }
+
+    /**
+     * Returns the kinds of changes.
+     *
+     * @return an unmodifiable set of the changes.
+     */
+    public Set<Change> getChanges() {
+        return changes;
+    }
+
+    /**
+     * Checks whether the environment changed in the given way.
+     *
+     * @param change the kind of change
+     * @return true if the environment changed in the given way.
+     */
+    public boolean hasChanged(Change change) {
+        return changes.contains(change);
+    }
+
+    /**
+     * Checks whether the environment did not change.
+     *
+     * @return true if there are no changes.
+     */
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    /**
+     * Returns the names of the environment variables that were added, removed or changed.
+     *
+     * @return an unmodifiable set of names.
+     */
+    public Set<String> getChangedVariables() {
+        return changedVariables;
+    }
+
+    @Override
+    public String toString() {
+        return "EnvironmentDelta" + changes;
+    }
+}
@@ -0,0 +1,192 @@
+// Copyright 2026 Azul Systems, Inc.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright notice,
+// this list of conditions and the following disclaimer in the documentation
+// and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package org.crac.util;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The properties of the execution environment that may change between checkpoint and restore.
+ *
+ * @see EnvironmentDelta
+ */
+public final class EnvironmentSnapshot {
+    private static final Path HOSTNAME = Paths.get("/proc/sys/kernel/hostname");
+    private static final Path CGROUP2_MEMORY_MAX = Paths.get("/sys/fs/cgroup/memory.max");
+    private static final Path CGROUP1_MEMORY_LIMIT = Paths.get("/sys/fs/cgroup/memory/memory.limit_in_bytes");
+
+    private final int availableProcessors;
+    private final long maxMemory;
+    private final long containerMemoryLimit;
+    private final Map<String, String> environment;
+    private final String hostName;
+
+    EnvironmentSnapshot(int availableProcessors, long maxMemory, long containerMemoryLimit,
+                        Map<String, String> environment, String hostName) {
+        this.availableProcessors = availableProcessors;
+        this.maxMemory = maxMemory;
+        this.containerMemoryLimit = containerMemoryLimit;
+        this.environment = Collections.unmodifiableMap(new HashMap<>(environment));
+        this.hostName = hostName;
+    }
+
+    /**
+     * Captures the current environment.
+     *
+     * @return the snapshot of the environment.
+     */
+    public static EnvironmentSnapshot capture() {
+        Runtime runtime = Runtime.getRuntime();
+        return new EnvironmentSnapshot(runtime.availableProcessors(), runtime.maxMemory(), readContainerMemoryLimit(),
+                System.getenv(), readHostName());
+    }
+
+    private static long readContainerMemoryLimit() {
+        String limit = readFirstLine(CGROUP2_MEMORY_MAX);
+        if (limit == null) {
+            limit = readFirstLine(CGROUP1_MEMORY_LIMIT);
+        }
+        if (limit == null || limit.equals("max")) {
+            return -1;
+        }
+        try {
+            long value = Long.parseLong(limit);
+            // cgroup v1 reports no limit as a huge number rounded to the page size
+            return value >= Long.MAX_VALUE / 2 ? -1 : value;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // Avoids a name service lookup where the kernel provides the name
+    private static String readHostName() {
+        String hostName = readFirstLine(HOSTNAME);
+        if (hostName != null) {
+            return hostName;
+        }
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static String readFirstLine(Path path) {
+        if (!Files.isReadable(path)) {
+            return null;
+        }
+        try {
+            byte[] bytes = Files.readAllBytes(path);
+            String content = new String(bytes, StandardCharsets.US_ASCII).trim();
+            return content.isEmpty() ? null : content;
+        } catch (IOException | SecurityException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the number of processors available to the Java virtual machine.
+     *
+     * @return the number of processors.
+     * @see Runtime#availableProcessors()
+     */
+    public int getAvailableProcessors() {
+        return availableProcessors;
+    }
+
+    /**
+     * Returns the maximum amount of memory the Java virtual machine will attempt to use.
+     *
+     * @return the maximum memory in bytes.
+     * @see Runtime#maxMemory()
+     */
+    public long getMaxMemory() {
+        return maxMemory;
+    }
+
+    /**
+     * Returns the memory limit of the control group of the process, read from the cgroup file system.
+     *
+     * @return the memory limit in bytes, or -1 if there is no limit or it is unknown.
+     */
+    public long getContainerMemoryLimit() {
+        return containerMemoryLimit;
+    }
+
+    /**
+     * Returns the environment variables.
+     *
+     * @return an unmodifiable map of the environment variables.
+     * @see System#getenv()
+     */
+    public Map<String, String> getEnvironment() {
+        return environment;
+    }
+
+    /**
+     * Returns the host name.
+     *
+     * @return the host name, or {@code null} if it is unknown.
+     */
+    public String getHostName() {
+        return hostName;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof EnvironmentSnapshot)) {
+            return false;
+        }
+        EnvironmentSnapshot other = (EnvironmentSnapshot) obj;
+        return availableProcessors == other.availableProcessors
+                && maxMemory == other.maxMemory
+                && containerMemoryLimit == other.containerMemoryLimit
+                && environment.equals(other.environment)
+                && Objects.equals(hostName, other.hostName);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(availableProcessors, maxMemory, containerMemoryLimit, environment, hostName);
+    }
+
+    @Override
+    public String toString() {
+        return "EnvironmentSnapshot[availableProcessors=" + availableProcessors + ", maxMemory=" + maxMemory
+                + ", containerMemoryLimit=" + containerMemoryLimit + ", hostName=" + hostName
+                + ", environment=" + environment.size() + " variables]";
+    }
+}
@@ -0,0 +1,70 @@
+// Copyright 2026 Azul Systems, Inc.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright notice,
+// this list of conditions and the following disclaimer in the documentation
+// and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package org.crac.util;
+
+import org.crac.Resource;
+import org.crac.impl.GlobalContextWrapper;
+
+/**
+ * Registers {@code Resource}s in the global {@code Context} with the ability to unregister them.
+ * <p>
+ * A {@code Resource} is registered in the global {@code Context} at most once, however many times
+ * it is registered, here or through {@link org.crac.Context#register(Resource)}. It stays registered
+ * until all {@link Registration}s of it are closed, or, if it is registered through
+ * {@code Context.register} as well, until it is garbage collected. Unregistering
+ * releases the bookkeeping of the {@code Resource} at once, instead of waiting until it is garbage collected,
+ * which suits short-lived objects like pooled connections.
+ */
+public final class GlobalRegistry {
+
+    private GlobalRegistry() {
+    }
+
+    /**
+     * Registers a {@code Resource} in the global {@code Context}, unless it is registered already.
+     * Closing the returned handle unregisters the {@code Resource} unless other handles of it are open.
+     *
+     * @param resource {@code Resource} to be registered.
+     * @return the handle of this registration of the {@code Resource}.
+     * @throws NullPointerException if {@code resource} is {@code null}
+     */
+    public static Registration register(Resource resource) {
+        return ((GlobalContextWrapper) GlobalContextWrapper.instance).registration(resource);
+    }
+
+    /**
+     * Unregisters a {@code Resource} from the global {@code Context}, regardless of open
+     * {@link Registration}s of it and of registrations through {@code Context.register}.
+     * A {@code Resource} being notified at the moment completes the notification,
+     * but is not notified about the following restore.
+     *
+     * @param resource {@code Resource} to be unregistered.
+     * @return true if the {@code Resource} was registered.
+     * @throws NullPointerException if {@code resource} is {@code null}
+     */
+    public static boolean unregister(Resource resource) {
+        return ((GlobalContextWrapper) GlobalContextWrapper.instance).unregister(resource);
+    }
+}
@@ -0,0 +1,65 @@
+// Copyright 2026 Azul Systems, Inc.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright notice,
+// this list of conditions and the following disclaimer in the documentation
+// and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package org.crac.util;
+
+import org.crac.impl.HeapTrimmer;
+
+/**
+ * Shrinks the heap at the end of checkpoint notification, so the image is smaller and faster to restore.
+ * <p>
+ * Heap trimming is enabled by setting the {@code org.crac.HeapTrimmer} system property to {@code true}.
+ * The trimming runs after the {@code beforeCheckpoint} notifications of all {@code Resource}s registered
+ * in the global {@code Context} through {@code org.crac}. It runs the clear actions of caches added
+ * by {@link #addCache(Runnable)}, such as caches of soft references that the garbage collector would
+ * otherwise keep, and collects garbage until the used heap stops shrinking. The heap usage before and
+ * after the trimming is reported by {@link org.crac.management.CRaCMXBean}.
+ */
+public final class HeapTrimming {
+
+    private HeapTrimming() {
+    }
+
+    /**
+     * Returns whether heap trimming is enabled.
+     *
+     * @return true if the {@code org.crac.HeapTrimmer} system property is {@code true}.
+     */
+    public static boolean isEnabled() {
+        return HeapTrimmer.isEnabled();
+    }
+
+    /**
+     * Adds the clear action of a cache, run on each checkpoint before garbage is collected.
+     * The action is kept reachable until the registration is closed. Exceptions thrown by the action
+     * are ignored.
+     *
+     * @param clear the action clearing the cache, e.g. {@code cache::clear}
+     * @return the registration of the action.
+     * @throws NullPointerException if {@code clear} is {@code null}
+     */
+    public static Registration addCache(Runnable clear) {
+        return HeapTrimmer.addCache(clear);
+    }
+}
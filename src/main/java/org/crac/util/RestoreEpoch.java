@@ -0,0 +1,76 @@
+// Copyright 2026 Azul Systems, Inc.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright notice,
+// this list of conditions and the following disclaimer in the documentation
+// and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package org.crac.util;
+
+import org.crac.impl.RestoreCounter;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A counter of restores, for caches of values that may become stale after restore,
+ * like host names, the number of CPUs, or time offsets.
+ * <p>
+ * Hot code can compare the epoch with the one saved along with the cached value, which costs
+ * a single volatile read, instead of registering a {@code Resource} per cache:
+ * <pre>{@code
+ * long epoch = RestoreEpoch.get();
+ * if (epoch != cachedEpoch) {
+ *     cachedValue = compute();
+ *     cachedEpoch = epoch;
+ * }
+ * }</pre>
+ * The epoch is incremented by a single {@code Resource}, which org.crac registers in the global {@code Context}
+ * when it detects the CRaC implementation, e.g. when the first {@code Resource} is registered through org.crac,
+ * and at the latest when this class is first used. Only restores after that are counted. The
+ * {@code Resource} is registered ahead of other {@code Resource}s registered through org.crac, so it is notified
+ * about restore first, and they see the new epoch in {@code afterRestore}.
+ * {@link org.crac.management.CRaCMXBean#getRestoreTime()} and {@link org.crac.nio.MappedRegion} rely on that.
+ * The global {@code Context} notifies about restore also after a failed checkpoint, which increments the epoch
+ * as well. Without a CRaC implementation the epoch stays {@code 0}.
+ */
+public final class RestoreEpoch {
+    private RestoreEpoch() {
+    }
+
+    /**
+     * Returns the number of restores since org.crac detected the CRaC implementation.
+     *
+     * @return the restore epoch.
+     */
+    public static long get() {
+        return RestoreCounter.get();
+    }
+
+    /**
+     * Returns a future completed with the new epoch after the next restore.
+     * Non-async dependent actions run during the restore notification
+     * of the global {@code Context}, so they should be short.
+     *
+     * @return a future completed after the next restore.
+     */
+    public static CompletableFuture<Long> onNextRestore() {
+        return RestoreCounter.onNextRestore();
+    }
+}
@@ -0,0 +1,222 @@
+// Copyright 2026 Azul Systems, Inc.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright notice,
+// this list of conditions and the following disclaimer in the documentation
+// and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package org.crac.warmup;
+
+import org.crac.Context;
+import org.crac.Resource;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link Resource} loading and initializing a recorded list of classes before checkpoint, so that they are
+ * part of the image and code paths first taken after restore do not pay for class loading.
+ *
+ * <p>The class list has one binary name per line, with either {@code '.'} or {@code '/'} as package separator.
+ * Empty lines and lines starting with {@code '#'} or {@code '@'} are ignored, as is anything after the name,
+ * so the output of {@code -XX:DumpLoadedClassList=<file>} can be used directly. A list can also be recorded
+ * in the running application by {@link #writeClassList}:
+ * <pre>{@code
+ * // during a representative run, e.g. from an agent
+ * ClassPreloader.writeClassList(checkpointDir.resolve("classes.lst"), instrumentation.getAllLoadedClasses());
+ * // in the application to checkpoint
+ * ClassPreloader preloader = ClassPreloader.fromClassList(checkpointDir.resolve("classes.lst"), loader);
+ * Context.getGlobalContext().register(preloader);
+ * }</pre>
+ *
+ * <p>The classes are loaded in parallel, and then initialized sequentially in list order: initializing
+ * in parallel could deadlock classes with circular static initializer dependencies. Classes that cannot be
+ * loaded or initialized are skipped and counted by {@link #getFailedCount()}. The resource does nothing
+ * on restore.
+ */
+public class ClassPreloader implements Resource {
+    private final List<String> classNames;
+    private final ClassLoader loader;
+    private final boolean initialize;
+    private final int parallelism;
+    private volatile int loadedCount;
+    private volatile int failedCount;
+
+    /**
+     * Creates a {@code ClassPreloader} loading and initializing classes using all available processors.
+     *
+     * @param classNames binary names of the classes
+     * @param loader {@code ClassLoader} to load the classes with
+     */
+    public ClassPreloader(Collection<String> classNames, ClassLoader loader) {
+        this(classNames, loader, true, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a {@code ClassPreloader}.
+     *
+     * @param classNames binary names of the classes
+     * @param loader {@code ClassLoader} to load the classes with
+     * @param initialize whether the classes are initialized after loading
+     * @param parallelism maximum number of threads loading classes at once
+     * @throws IllegalArgumentException if {@code parallelism} is not positive
+     */
+    public ClassPreloader(Collection<String> classNames, ClassLoader loader, boolean initialize, int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+        }
+        this.classNames = new ArrayList<>(classNames);
+        this.loader = loader;
+        this.initialize = initialize;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Creates a {@code ClassPreloader} loading and initializing the classes of a class list file.
+     *
+     * @param classList the class list file
+     * @param loader {@code ClassLoader} to load the classes with
+     * @return a new {@code ClassPreloader}.
+     * @throws IOException if the file cannot be read
+     */
+    public static ClassPreloader fromClassList(Path classList, ClassLoader loader) throws IOException {
+        return new ClassPreloader(readClassList(classList), loader);
+    }
+
+    /**
+     * Reads a class list file.
+     *
+     * @param classList the class list file
+     * @return binary names of the classes, in file order.
+     * @throws IOException if the file cannot be read
+     */
+    public static List<String> readClassList(Path classList) throws IOException {
+        List<String> names = new ArrayList<>();
+        for (String line : Files.readAllLines(classList, StandardCharsets.UTF_8)) {
+            line = line.trim();
+            if (line.isEmpty() || line.charAt(0) == '#' || line.charAt(0) == '@') {
+                continue;
+            }
+            int end = line.indexOf(' ');
+            names.add((end < 0 ? line : line.substring(0, end)).replace('/', '.'));
+        }
+        return names;
+    }
+
+    /**
+     * Writes a class list file in the format of {@code -XX:DumpLoadedClassList}. Array, primitive and hidden
+     * classes are omitted, as they cannot be loaded by name.
+     *
+     * @param classList the class list file
+     * @param classes classes to record, e.g. from {@link java.lang.instrument.Instrumentation#getAllLoadedClasses()}
+     * @throws IOException if the file cannot be written
+     */
+    public static void writeClassList(Path classList, Class<?>[] classes) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(classList, StandardCharsets.UTF_8)) {
+            for (Class<?> c : classes) {
+                String name = c.getName();
+                if (c.isArray() || c.isPrimitive() || name.indexOf('/') >= 0) {
+                    continue;
+                }
+                writer.write(name.replace('.', '/'));
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of classes loaded, and initialized if requested, by the last checkpoint notification.
+     *
+     * @return the number of classes.
+     */
+    public int getLoadedCount() {
+        return loadedCount;
+    }
+
+    /**
+     * Returns the number of classes that could not be loaded or initialized by the last checkpoint notification.
+     *
+     * @return the number of classes.
+     */
+    public int getFailedCount() {
+        return failedCount;
+    }
+
+    @Override
+    public void beforeCheckpoint(Context<? extends Resource> context) {
+        Class<?>[] classes = new Class<?>[classNames.size()];
+        AtomicInteger failed = new AtomicInteger();
+        int chunks = Math.min(parallelism, classes.length);
+        if (chunks <= 1) {
+            load(classes, 0, classes.length, failed);
+        } else {
+            ForkJoinPool pool = new ForkJoinPool(chunks);
+            try {
+                CompletableFuture<?>[] futures = new CompletableFuture<?>[chunks];
+                for (int i = 0; i < chunks; i++) {
+                    int from = (int) ((long) classes.length * i / chunks);
+                    int to = (int) ((long) classes.length * (i + 1) / chunks);
+                    futures[i] = CompletableFuture.runAsync(() -> load(classes, from, to, failed), pool);
+                }
+                CompletableFuture.allOf(futures).join();
+            } finally {
+                pool.shutdown();
+            }
+        }
+        if (initialize) {
+            for (int i = 0; i < classes.length; i++) {
+                if (classes[i] == null) {
+                    continue;
+                }
+                try {
+                    Class.forName(classes[i].getName(), true, classes[i].getClassLoader());
+                } catch (ClassNotFoundException | LinkageError e) {
+                    classes[i] = null;
+                    failed.incrementAndGet();
+                }
+            }
+        }
+        failedCount = failed.get();
+        loadedCount = classes.length - failedCount;
+    }
+
+    private void load(Class<?>[] classes, int from, int to, AtomicInteger failed) {
+        for (int i = from; i < to; i++) {
+            try {
+                classes[i] = Class.forName(classNames.get(i), false, loader);
+            } catch (ClassNotFoundException | LinkageError e) {
+                failed.incrementAndGet();
+            }
+        }
+    }
+
+    @Override
+    public void afterRestore(Context<? extends Resource> context) {
+    }
+}
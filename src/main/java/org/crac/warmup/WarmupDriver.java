@@ -0,0 +1,169 @@
+// Copyright 2026 Azul Systems, Inc.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright notice,
+// this list of conditions and the following disclaimer in the documentation
+// and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package org.crac.warmup;
+
+import org.crac.CheckpointException;
+import org.crac.RestoreException;
+import org.crac.management.CRaCMXBean;
+
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs training tasks until JIT compilation reaches a steady state, and then requests a checkpoint.
+ *
+ * <p>The tasks are run repeatedly, in the order they were added. After each round, the total compilation time
+ * reported by {@link CompilationMXBean} and the used code cache are sampled. The steady state is reached when
+ * neither of them grew for the quiet period. If the steady state is not reached within the maximum warmup time,
+ * the warmup ends anyway. If the Java virtual machine monitors neither, the tasks run for the maximum warmup time.
+ * <pre>{@code
+ * WarmupDriver driver = new WarmupDriver(2, 60, TimeUnit.SECONDS);
+ * driver.addTask(() -> handler.handle(sampleRequest()));
+ * WarmupReport report = driver.warmUpAndCheckpoint();
+ * }</pre>
+ */
+public class WarmupDriver {
+    private final long quietPeriodNanos;
+    private final long maxWarmupNanos;
+    private final List<Runnable> tasks = new ArrayList<>();
+
+    /**
+     * Creates a {@code WarmupDriver}.
+     *
+     * @param quietPeriod the time without growth of compilation time and code cache that is the steady state
+     * @param maxWarmupTime the maximum duration of the warmup
+     * @param unit the time unit of {@code quietPeriod} and {@code maxWarmupTime}
+     * @throws IllegalArgumentException if {@code quietPeriod} or {@code maxWarmupTime} is negative
+     */
+    public WarmupDriver(long quietPeriod, long maxWarmupTime, TimeUnit unit) {
+        if (quietPeriod < 0 || maxWarmupTime < 0) {
+            throw new IllegalArgumentException("negative time: " + quietPeriod + ", " + maxWarmupTime);
+        }
+        quietPeriodNanos = unit.toNanos(quietPeriod);
+        maxWarmupNanos = unit.toNanos(maxWarmupTime);
+    }
+
+    /**
+     * Adds a training task. The task is run repeatedly during the warmup; exceptions thrown by it end the warmup.
+     *
+     * @param task the training task
+     * @return this driver.
+     * @throws NullPointerException if {@code task} is {@code null}
+     */
+    public synchronized WarmupDriver addTask(Runnable task) {
+        tasks.add(Objects.requireNonNull(task));
+        return this;
+    }
+
+    /**
+     * Runs the training tasks until the steady state is reached or the maximum warmup time elapses.
+     *
+     * @return the report of the warmup.
+     */
+    public WarmupReport warmUp() {
+        List<Runnable> tasks;
+        synchronized (this) {
+            tasks = new ArrayList<>(this.tasks);
+        }
+        CompilationMXBean compilation = ManagementFactory.getCompilationMXBean();
+        boolean monitorCompilation = compilation != null && compilation.isCompilationTimeMonitoringSupported();
+        List<MemoryPoolMXBean> codeCache = codeCachePools();
+
+        long start = System.nanoTime();
+        long compilationStart = monitorCompilation ? compilation.getTotalCompilationTime() : -1;
+        long codeCacheStart = used(codeCache);
+        long lastCompilation = compilationStart;
+        long lastCodeCache = codeCacheStart;
+        long lastChange = start;
+        long iterations = 0;
+        boolean steady = false;
+        for (long now = start; now - start < maxWarmupNanos; ) {
+            for (Runnable task : tasks) {
+                task.run();
+            }
+            iterations++;
+            now = System.nanoTime();
+            long compilationTime = monitorCompilation ? compilation.getTotalCompilationTime() : -1;
+            long codeCacheUsed = used(codeCache);
+            // The code cache shrinks when compiled code is flushed, which is not warmup
+            boolean grew = compilationTime > lastCompilation || codeCacheUsed > lastCodeCache;
+            lastCompilation = compilationTime;
+            lastCodeCache = codeCacheUsed;
+            if (grew) {
+                lastChange = now;
+            } else if ((monitorCompilation || !codeCache.isEmpty()) && now - lastChange >= quietPeriodNanos) {
+                steady = true;
+                break;
+            }
+        }
+        long warmupTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        return new WarmupReport(iterations, warmupTime, steady,
+                monitorCompilation ? lastCompilation - compilationStart : -1, lastCompilation,
+                codeCache.isEmpty() ? -1 : lastCodeCache - codeCacheStart, lastCodeCache);
+    }
+
+    /**
+     * Warms up like {@link #warmUp()} and requests a checkpoint by {@link CRaCMXBean#checkpointRestore()}.
+     *
+     * @return the report of the warmup, after restore.
+     * @throws CheckpointException           if an exception occurred during checkpoint notification.
+     * @throws RestoreException              if an exception occurred during restore notification.
+     * @throws UnsupportedOperationException if checkpoint/restore is not supported.
+     */
+    public WarmupReport warmUpAndCheckpoint() throws CheckpointException, RestoreException {
+        WarmupReport report = warmUp();
+        CRaCMXBean.getCRaCMXBean().checkpointRestore();
+        return report;
+    }
+
+    private static List<MemoryPoolMXBean> codeCachePools() {
+        List<MemoryPoolMXBean> pools = new ArrayList<>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            // "Code Cache" before JDK 9, segmented "CodeHeap '...'" since
+            if (pool.getType() == MemoryType.NON_HEAP
+                    && (pool.getName().equals("Code Cache") || pool.getName().startsWith("CodeHeap"))) {
+                pools.add(pool);
+            }
+        }
+        return pools;
+    }
+
+    private static long used(List<MemoryPoolMXBean> pools) {
+        if (pools.isEmpty()) {
+            return -1;
+        }
+        long used = 0;
+        for (MemoryPoolMXBean pool : pools) {
+            used += pool.getUsage().getUsed();
+        }
+        return used;
+    }
+}
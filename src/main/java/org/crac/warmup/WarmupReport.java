@@ -0,0 +1,121 @@
+// Copyright 2026 Azul Systems, Inc.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright notice,
+// this list of conditions and the following disclaimer in the documentation
+// and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+
+package org.crac.warmup;
+
+/**
+ * The result of {@link WarmupDriver#warmUp()}: how much warmup the Java virtual machine went through.
+ */
+public final class WarmupReport {
+    private final long iterations;
+    private final long warmupTime;
+    private final boolean steadyStateReached;
+    private final long compilationTime;
+    private final long totalCompilationTime;
+    private final long codeCacheGrowth;
+    private final long codeCacheUsed;
+
+    WarmupReport(long iterations, long warmupTime, boolean steadyStateReached, long compilationTime,
+                 long totalCompilationTime, long codeCacheGrowth, long codeCacheUsed) {
+        this.iterations = iterations;
+        this.warmupTime = warmupTime;
+        this.steadyStateReached = steadyStateReached;
+        this.compilationTime = compilationTime;
+        this.totalCompilationTime = totalCompilationTime;
+        this.codeCacheGrowth = codeCacheGrowth;
+        this.codeCacheUsed = codeCacheUsed;
+    }
+
+    /**
+     * Returns the number of times the training tasks were run.
+     *
+     * @return the number of iterations.
+     */
+    public long getIterations() {
+        return iterations;
+    }
+
+    /**
+     * Returns the duration of the warmup.
+     *
+     * @return the duration in milliseconds.
+     */
+    public long getWarmupTime() {
+        return warmupTime;
+    }
+
+    /**
+     * Returns whether the compilation reached a steady state, rather than the warmup timed out.
+     *
+     * @return true if the steady state was reached.
+     */
+    public boolean isSteadyStateReached() {
+        return steadyStateReached;
+    }
+
+    /**
+     * Returns the time spent in JIT compilation during the warmup.
+     *
+     * @return the compilation time in milliseconds, or -1 if not monitored.
+     */
+    public long getCompilationTime() {
+        return compilationTime;
+    }
+
+    /**
+     * Returns the time spent in JIT compilation since the start of the Java virtual machine until the end of the warmup.
+     *
+     * @return the compilation time in milliseconds, or -1 if not monitored.
+     */
+    public long getTotalCompilationTime() {
+        return totalCompilationTime;
+    }
+
+    /**
+     * Returns the growth of the code cache during the warmup. It is negative if more compiled code
+     * was flushed from the code cache than added.
+     *
+     * @return the growth in bytes, or -1 if not monitored.
+     */
+    public long getCodeCacheGrowth() {
+        return codeCacheGrowth;
+    }
+
+    /**
+     * Returns the used code cache at the end of the warmup.
+     *
+     * @return the used code cache in bytes, or -1 if not monitored.
+     */
+    public long getCodeCacheUsed() {
+        return codeCacheUsed;
+    }
+
+    @Override
+    public String toString() {
+        return "WarmupReport[iterations=" + iterations + ", warmupTime=" + warmupTime
+                + " ms, steadyStateReached=" + steadyStateReached
+                + ", compilationTime=" + compilationTime + " ms, totalCompilationTime=" + totalCompilationTime
+                + " ms, codeCacheGrowth=" + codeCacheGrowth + ", codeCacheUsed=" + codeCacheUsed + "]";
+    }
+}
@@ -0,0 +1,175 @@
+// Copyright 2026 Azul Systems, Inc.
+//
+// Redistribution and use in source and binary forms, with or without
+// modification, are permitted provided that the following conditions are met:
+//
+// 1. Redistributions of source code must retain the above copyright notice,
+// this list of conditions and the following disclaimer.
+//
+// 2. Redistributions in binary form must reproduce the above copyright notice,
+// this list of conditions and the following disclaimer in the documentation
+// and/or other materials provided with the distribution.
+//
+// THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+// AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+// IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+// ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+// LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+// CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+// SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+// INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+// CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+// ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+// POSSIBILITY OF SUCH DAMAGE.
+package org.crac.impl;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Utility class, made public only for org.crac.management
+//
+// Emits Flight Recorder events for notifications of Resources registered through org.crac.
+// A notification phase spans from the start of its first notification to the end of its
+// last one. The end of a phase is only known when a notification of the other phase starts,
+// or when the checkpoint requested through org.crac completes, so the phase event is
+// committed then. Only a change of the phase takes the global lock; notifications within
+// a phase synchronize on the phase event, if it is enabled.
+public class Events {
+    private static final boolean available =
+            ModuleLayer.boot().findModule("jdk.jfr").isPresent()
+            && Jfr.isAvailable();
+
+    private Events() {
+    }
+
+    public static void checkpointRequested() {
+        if (available) {
+            Jfr.checkpointRequested();
+        }
+    }
+
+    public static void checkpointRestoreCompleted() {
+        if (available) {
+            Jfr.completePhase();
+        }
+    }
+
+    static Object beginNotification(int phase) {
+        return available ? Jfr.beginNotification(phase) : null;
+    }
+
+    static void endNotification(Object event, int phase, Class<?> resourceClass) {
+        if (available) {
+            Jfr.endNotification(event, phase, resourceClass);
+        }
+    }
+
+    // Kept apart from Events, so jdk.jfr classes are not loaded if the module is missing
+    private static class Jfr {
+        @Name("org.crac.CheckpointRequest")
+        @Label("Checkpoint Request")
+        @Category("CRaC")
+        @Description("Checkpoint requested through org.crac")
+        static class CheckpointRequestEvent extends Event {
+        }
+
+        @Name("org.crac.Notification")
+        @Label("Resource Notification")
+        @Category("CRaC")
+        @Description("Notification of a Resource registered through org.crac")
+        @StackTrace(false)
+        static class NotificationEvent extends Event {
+            @Label("Resource Class")
+            Class<?> resourceClass;
+
+            @Label("Phase")
+            String phase;
+        }
+
+        @Name("org.crac.NotificationPhase")
+        @Label("Notification Phase")
+        @Category("CRaC")
+        @Description("Notifications of Resources registered through org.crac, from the first to the last one")
+        @StackTrace(false)
+        static class PhaseEvent extends Event {
+            @Label("Phase")
+            String phase;
+
+            @Label("Resources")
+            int resources;
+        }
+
+        // Written under Jfr.class, read without it
+        private static volatile PhaseEvent phaseEvent;
+        private static volatile int phase = -1;
+
+        static boolean isAvailable() {
+            return jdk.jfr.FlightRecorder.isAvailable();
+        }
+
+        static void checkpointRequested() {
+            completePhase();
+            new CheckpointRequestEvent().commit();
+        }
+
+        static synchronized void completePhase() {
+            PhaseEvent event = phaseEvent;
+            if (event != null) {
+                phaseEvent = null;
+                synchronized (event) {
+                    event.commit();
+                }
+            }
+            phase = -1;
+        }
+
+        static Object beginNotification(int phase) {
+            if (Jfr.phase != phase) {
+                synchronized (Jfr.class) {
+                    if (Jfr.phase != phase) {
+                        completePhase();
+                        PhaseEvent event = new PhaseEvent();
+                        if (event.isEnabled()) {
+                            event.phase = NotificationStats.phaseName(phase);
+                            event.begin();
+                            phaseEvent = event;
+                        }
+                        Jfr.phase = phase;
+                    }
+                }
+            }
+            NotificationEvent event = new NotificationEvent();
+            if (!event.isEnabled()) {
+                return null;
+            }
+            event.begin();
+            return event;
+        }
+
+        static void endNotification(Object e, int phase, Class<?> resourceClass) {
+            PhaseEvent phaseEvent = Jfr.phaseEvent;
+            if (phaseEvent != null && Jfr.phase == phase) {
+                synchronized (phaseEvent) {
+                    // A committed event is no longer the current one
+                    if (phaseEvent == Jfr.phaseEvent) {
+                        phaseEvent.resources++;
+                        phaseEvent.end();
+                    }
+                }
+            }
+            if (e != null) {
+                NotificationEvent event = (NotificationEvent) e;
+                event.end();
+                if (event.shouldCommit()) {
+                    event.resourceClass = resourceClass;
+                    event.phase = NotificationStats.phaseName(phase);
+                    event.commit();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package org.crac.concurrent;
+
+import org.testng.annotations.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.*;
+
+@Test
+public class ConcurrentTest {
+
+    public void testGate() throws Exception {
+        CheckpointGate gate = new CheckpointGate(10, TimeUnit.SECONDS);
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            CountDownLatch entered = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            Future<?> inFlight = executor.submit(() -> {
+                gate.enter();
+                try {
+                    entered.countDown();
+                    release.await();
+                } finally {
+                    gate.exit();
+                }
+                return null;
+            });
+            entered.await();
+            assertEquals(gate.getInFlight(), 1);
+
+            Future<?> checkpoint = executor.submit(() -> {
+                gate.beforeCheckpoint(null);
+                return null;
+            });
+            while (!gate.isClosed()) {
+                Thread.yield();
+            }
+            assertFalse(gate.tryEnter());
+            Future<?> blocked = executor.submit(() -> {
+                gate.enter();
+                gate.exit();
+                return null;
+            });
+            // The checkpoint waits for in-flight work
+            assertThrows(TimeoutException.class, () -> checkpoint.get(100, TimeUnit.MILLISECONDS));
+            release.countDown();
+            inFlight.get();
+            checkpoint.get();
+            assertEquals(gate.getInFlight(), 0);
+
+            // Callers wait for restore
+            assertThrows(TimeoutException.class, () -> blocked.get(100, TimeUnit.MILLISECONDS));
+            gate.afterRestore(null);
+            blocked.get();
+            assertTrue(gate.tryEnter());
+            gate.exit();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    public void testGateDrainTimeout() throws Exception {
+        CheckpointGate gate = new CheckpointGate(50, TimeUnit.MILLISECONDS);
+        gate.enter();
+        assertThrows(TimeoutException.class, () -> gate.beforeCheckpoint(null));
+        gate.exit();
+        gate.afterRestore(null);
+        assertFalse(gate.isClosed());
+    }
+
+    public void testAdaptiveExecutor() throws Exception {
+        AtomicInteger sizing = new AtomicInteger();
+        AdaptiveThreadPoolExecutor executor = new AdaptiveThreadPoolExecutor(n -> {
+            sizing.incrementAndGet();
+            return 2 * n;
+        }, n -> 2 * n, 0, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+        ExecutorService notifier = Executors.newSingleThreadExecutor();
+        try {
+            int processors = Runtime.getRuntime().availableProcessors();
+            assertEquals(executor.getCorePoolSize(), 2 * processors);
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            Future<?> running = executor.submit(() -> {
+                started.countDown();
+                release.await();
+                return null;
+            });
+            // A worker is active before beforeExecute, so the task could still be paused before it starts
+            started.await();
+
+            // The checkpoint waits for the running task
+            Future<?> checkpoint = notifier.submit(() -> {
+                executor.getResource().beforeCheckpoint(null);
+                return null;
+            });
+            while (!executor.isPaused()) {
+                Thread.yield();
+            }
+            Future<?> queued = executor.submit(() -> { });
+            assertThrows(TimeoutException.class, () -> checkpoint.get(100, TimeUnit.MILLISECONDS));
+            release.countDown();
+            running.get();
+            checkpoint.get();
+
+            // Tasks do not start until restore
+            assertThrows(TimeoutException.class, () -> queued.get(100, TimeUnit.MILLISECONDS));
+            executor.getResource().afterRestore(null);
+            queued.get();
+            assertEquals(sizing.get(), 2);
+            assertEquals(executor.getCorePoolSize(), 2 * processors);
+        } finally {
+            executor.shutdownNow();
+            notifier.shutdownNow();
+        }
+    }
+
+    public void testAdaptiveExecutorFailedResize() throws Exception {
+        AtomicBoolean fail = new AtomicBoolean();
+        AdaptiveThreadPoolExecutor executor = new AdaptiveThreadPoolExecutor(n -> {
+            // The executor stays registered in the global Context until collected, so it fails only once
+            if (fail.getAndSet(false)) {
+                throw new IllegalStateException("sizing");
+            }
+            return 1;
+        }, n -> 1, 0, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+        try {
+            executor.getResource().beforeCheckpoint(null);
+            Future<?> queued = executor.submit(() -> { });
+            fail.set(true);
+            assertThrows(IllegalStateException.class, () -> executor.getResource().afterRestore(null));
+            // The executor resumes with the previous sizes
+            assertFalse(executor.isPaused());
+            queued.get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    public void testRestoreSafeScheduler() throws Exception {
+        RestoreSafeScheduledThreadPoolExecutor executor = new RestoreSafeScheduledThreadPoolExecutor(1);
+        try {
+            ScheduledFuture<?> task = executor.schedule(() -> { }, 500, TimeUnit.MILLISECONDS);
+            long remaining = task.getDelay(TimeUnit.MILLISECONDS);
+            executor.getResource().beforeCheckpoint(null);
+            // The downtime, longer than the delay, does not count towards it
+            Thread.sleep(600);
+            assertFalse(task.isDone());
+            executor.getResource().afterRestore(null);
+            long delay = task.getDelay(TimeUnit.MILLISECONDS);
+            assertTrue(delay > 0 && delay <= remaining, "delay " + delay + ", remaining " + remaining);
+            task.get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    public void testRestoreSafeSchedulerFixedRate() throws Exception {
+        RestoreSafeScheduledThreadPoolExecutor executor = new RestoreSafeScheduledThreadPoolExecutor(1);
+        try {
+            AtomicInteger runs = new AtomicInteger();
+            ScheduledFuture<?> task = executor.scheduleAtFixedRate(runs::incrementAndGet, 0, 100, TimeUnit.MILLISECONDS);
+            while (runs.get() < 2) {
+                Thread.yield();
+            }
+            executor.getResource().beforeCheckpoint(null);
+            int held = runs.get();
+            Thread.sleep(1000);
+            assertEquals(runs.get(), held);
+            executor.getResource().afterRestore(null);
+            // The 10 runs missed during the downtime are not caught up: a window of 5 periods
+            // has at most 7 runs, rather than a burst of about 15. A slow runner only has fewer.
+            Thread.sleep(500);
+            int after = runs.get() - held;
+            assertTrue(after <= 7, "runs " + after);
+            assertTrue(task.getDelay(TimeUnit.MILLISECONDS) <= 100);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    public void testRestoreSafeSchedulerFixedDelay() throws Exception {
+        RestoreSafeScheduledThreadPoolExecutor executor = new RestoreSafeScheduledThreadPoolExecutor(1);
+        try {
+            AtomicInteger runs = new AtomicInteger();
+            ScheduledFuture<?> task = executor.scheduleWithFixedDelay(runs::incrementAndGet, 0, 100, TimeUnit.MILLISECONDS);
+            while (runs.get() < 1) {
+                Thread.yield();
+            }
+            executor.getResource().beforeCheckpoint(null);
+            int held = runs.get();
+            Thread.sleep(300);
+            executor.getResource().afterRestore(null);
+            while (runs.get() < held + 2) {
+                Thread.yield();
+            }
+            // The downtime is not added to the runs after the rescheduled one
+            long delay = task.getDelay(TimeUnit.MILLISECONDS);
+            assertTrue(delay <= 100, "delay " + delay);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    public void testRestoreSafeSchedulerHoldWhileRunning() throws Exception {
+        RestoreSafeScheduledThreadPoolExecutor executor = new RestoreSafeScheduledThreadPoolExecutor(1);
+        try {
+            CountDownLatch running = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            AtomicInteger runs = new AtomicInteger();
+            ScheduledFuture<?> task = executor.scheduleAtFixedRate(() -> {
+                runs.incrementAndGet();
+                running.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, 0, 50, TimeUnit.MILLISECONDS);
+            running.await();
+            executor.getResource().beforeCheckpoint(null);
+            release.countDown();
+            // Requeued after the run, but held
+            Thread.sleep(200);
+            assertEquals(runs.get(), 1);
+            assertTrue(task.getDelay(TimeUnit.DAYS) > 1);
+            executor.getResource().afterRestore(null);
+            while (runs.get() < 2) {
+                Thread.yield();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
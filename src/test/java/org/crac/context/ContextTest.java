@@ -0,0 +1,437 @@
+package org.crac.context;
+
+import org.crac.CheckpointException;
+import org.crac.Context;
+import org.crac.Resource;
+import org.crac.RestoreException;
+import org.testng.annotations.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.testng.Assert.*;
+
+@Test
+public class ContextTest {
+
+    private static class Recorder implements Resource {
+        private final String name;
+        private final List<String> log;
+        private final Exception onCheckpoint;
+        private final Exception onRestore;
+
+        Recorder(String name, List<String> log) {
+            this(name, log, null, null);
+        }
+
+        Recorder(String name, List<String> log, Exception onCheckpoint, Exception onRestore) {
+            this.name = name;
+            this.log = log;
+            this.onCheckpoint = onCheckpoint;
+            this.onRestore = onRestore;
+        }
+
+        @Override
+        public void beforeCheckpoint(Context<? extends Resource> context) throws Exception {
+            log.add("before " + name);
+            if (onCheckpoint != null) {
+                throw onCheckpoint;
+            }
+        }
+
+        @Override
+        public void afterRestore(Context<? extends Resource> context) throws Exception {
+            log.add("after " + name);
+            if (onRestore != null) {
+                throw onRestore;
+            }
+        }
+    }
+
+    private static List<String> newLog() {
+        return Collections.synchronizedList(new ArrayList<>());
+    }
+
+    public void testAggregatingOrder() throws Exception {
+        List<String> log = newLog();
+        AggregatingContext<Resource> context = new AggregatingContext<>();
+        List<Resource> resources = new ArrayList<>();
+        for (String name : Arrays.asList("a", "b", "c")) {
+            Resource r = new Recorder(name, log);
+            resources.add(r);
+            context.register(r);
+        }
+        context.beforeCheckpoint(null);
+        context.afterRestore(null);
+        assertEquals(log, Arrays.asList("before c", "before b", "before a", "after a", "after b", "after c"));
+    }
+
+    public void testAggregatingExceptions() throws Exception {
+        List<String> log = newLog();
+        Exception e1 = new Exception("e1");
+        Exception e2 = new Exception("e2");
+        Exception e3 = new Exception("e3");
+        AggregatingContext<Resource> nested = new AggregatingContext<>();
+        Resource r1 = new Recorder("r1", log, e1, e3);
+        Resource r2 = new Recorder("r2", log, e2, null);
+        nested.register(r1);
+        nested.register(r2);
+        AggregatingContext<Resource> context = new AggregatingContext<>();
+        context.register(nested);
+
+        try {
+            context.beforeCheckpoint(null);
+            fail("Should throw CheckpointException");
+        } catch (CheckpointException e) {
+            // Exceptions of the nested context are flattened
+            assertEquals(Arrays.asList(e.getSuppressed()), Arrays.asList(e2, e1));
+        }
+        try {
+            context.afterRestore(null);
+            fail("Should throw RestoreException");
+        } catch (RestoreException e) {
+            assertEquals(Arrays.asList(e.getSuppressed()), Collections.singletonList(e3));
+        }
+        assertEquals(log, Arrays.asList("before r2", "before r1", "after r1", "after r2"));
+    }
+
+    public void testAggregatingWeak() throws Exception {
+        List<String> log = newLog();
+        AggregatingContext<Resource> context = new AggregatingContext<>();
+        Resource kept = new Recorder("kept", log);
+        context.register(kept);
+        // Enough to make the list compact and grow a few times
+        List<WeakReference<Resource>> dropped = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            Resource r = new Recorder("dropped", log);
+            context.register(r);
+            dropped.add(new WeakReference<>(r));
+        }
+        for (WeakReference<Resource> ref : dropped) {
+            while (ref.get() != null) {
+                System.gc();
+                Thread.yield();
+            }
+        }
+        context.beforeCheckpoint(null);
+        context.afterRestore(null);
+        assertEquals(log, Arrays.asList("before kept", "after kept"));
+    }
+
+    // Completes only if all Resources sharing the latches are notified at the same time
+    private static class Rendezvous implements Resource {
+        private final CountDownLatch checkpoint;
+        private final CountDownLatch restore;
+
+        Rendezvous(CountDownLatch checkpoint, CountDownLatch restore) {
+            this.checkpoint = checkpoint;
+            this.restore = restore;
+        }
+
+        private static void await(CountDownLatch latch) throws Exception {
+            latch.countDown();
+            if (!latch.await(10, TimeUnit.SECONDS)) {
+                throw new Exception("not concurrent");
+            }
+        }
+
+        @Override
+        public void beforeCheckpoint(Context<? extends Resource> context) throws Exception {
+            await(checkpoint);
+        }
+
+        @Override
+        public void afterRestore(Context<? extends Resource> context) throws Exception {
+            await(restore);
+        }
+    }
+
+    public void testParallel() throws Exception {
+        int parallelism = 4;
+        ParallelContext<Resource> context = new ParallelContext<>(parallelism);
+        CountDownLatch checkpoint = new CountDownLatch(parallelism);
+        CountDownLatch restore = new CountDownLatch(parallelism);
+        List<Resource> resources = new ArrayList<>();
+        for (int i = 0; i < parallelism; i++) {
+            Resource r = new Rendezvous(checkpoint, restore);
+            resources.add(r);
+            context.register(r);
+        }
+        context.beforeCheckpoint(null);
+        context.afterRestore(null);
+    }
+
+    public void testParallelExceptions() throws Exception {
+        List<String> log = newLog();
+        Exception e1 = new Exception("e1");
+        Exception e2 = new Exception("e2");
+        ParallelContext<Resource> context = new ParallelContext<>(2);
+        Resource r1 = new Recorder("r1", log, e1, null);
+        Resource r2 = new Recorder("r2", log, e2, null);
+        Resource r3 = new Recorder("r3", log);
+        context.register(r1);
+        context.register(r2);
+        context.register(r3);
+        try {
+            context.beforeCheckpoint(null);
+            fail("Should throw CheckpointException");
+        } catch (CheckpointException e) {
+            List<Throwable> suppressed = Arrays.asList(e.getSuppressed());
+            assertEquals(suppressed.size(), 2);
+            assertTrue(suppressed.contains(e1));
+            assertTrue(suppressed.contains(e2));
+        }
+        context.afterRestore(null);
+        assertEquals(log.size(), 6);
+        assertTrue(log.containsAll(Arrays.asList("before r3", "after r1", "after r2", "after r3")));
+    }
+
+    public void testDependencyOrder() throws Exception {
+        List<String> log = newLog();
+        DependencyContext<Resource> context = new DependencyContext<>(1);
+        Resource db = new Recorder("db", log);
+        Resource cache = new Recorder("cache", log);
+        Resource http = new Recorder("http", log);
+        Resource worker = new Recorder("worker", log);
+        context.register(db);
+        context.register(cache, Collections.singletonList(db));
+        context.register(http, Arrays.asList(db, cache));
+        context.register(worker);
+        context.beforeCheckpoint(null);
+        context.afterRestore(null);
+        assertEquals(log, Arrays.asList(
+                "before worker", "before http", "before cache", "before db",
+                "after db", "after cache", "after http", "after worker"));
+    }
+
+    public void testDependencyThroughCollected() throws Exception {
+        List<String> log = newLog();
+        DependencyContext<Resource> context = new DependencyContext<>(1);
+        Resource first = new Recorder("first", log);
+        context.register(first);
+        WeakReference<Resource> middle = registerMiddle(context, first, log);
+        Resource last = new Recorder("last", log);
+        context.register(last, Collections.singletonList(middle.get()));
+        while (middle.get() != null) {
+            System.gc();
+            Thread.yield();
+        }
+        // Registration expunges the collected Resource, but keeps the order
+        context.register(new Recorder("other", log));
+        context.beforeCheckpoint(null);
+        assertEquals(log.subList(1, 3), Arrays.asList("before last", "before first"));
+    }
+
+    private static WeakReference<Resource> registerMiddle(DependencyContext<Resource> context, Resource dependency,
+                                                          List<String> log) {
+        Resource middle = new Recorder("middle", log);
+        context.register(middle, Collections.singletonList(dependency));
+        return new WeakReference<>(middle);
+    }
+
+    public void testDependencyCycle() {
+        List<String> log = newLog();
+        DependencyContext<Resource> context = new DependencyContext<>();
+        Resource a = new Recorder("a", log);
+        Resource b = new Recorder("b", log);
+        Resource c = new Recorder("c", log);
+        context.register(a);
+        context.register(b, Collections.singletonList(a));
+        context.register(c, Collections.singletonList(b));
+        assertThrows(IllegalArgumentException.class, () -> context.register(a, Collections.singletonList(c)));
+        assertThrows(IllegalArgumentException.class, () -> context.register(a, Collections.singletonList(a)));
+        assertThrows(IllegalArgumentException.class,
+                () -> context.register(a, Collections.singletonList(new Recorder("unregistered", log))));
+    }
+
+    public void testPhased() throws Exception {
+        List<String> log = newLog();
+        PhasedContext<Resource> context = new PhasedContext<>(2, "drain", "flush", "close");
+        Resource socket = new Recorder("socket", log);
+        Resource buffer = new Recorder("buffer", log);
+        Resource queue = new Recorder("queue", log);
+        context.register(socket);
+        context.register(buffer, "flush");
+        context.register(queue, "drain");
+        // Resources of a phase are notified concurrently
+        CountDownLatch checkpoint = new CountDownLatch(2);
+        CountDownLatch restore = new CountDownLatch(2);
+        Resource r1 = new Rendezvous(checkpoint, restore);
+        Resource r2 = new Rendezvous(checkpoint, restore);
+        context.register(r1, "flush");
+        context.register(r2, "flush");
+        context.beforeCheckpoint(null);
+        context.afterRestore(null);
+        assertEquals(log, Arrays.asList(
+                "before queue", "before buffer", "before socket",
+                "after socket", "after buffer", "after queue"));
+        assertThrows(IllegalArgumentException.class, () -> context.register(socket, "serve"));
+    }
+
+    private static class Sleeper implements Resource {
+        private final String name;
+        private final List<String> log;
+
+        Sleeper(String name, List<String> log) {
+            this.name = name;
+            this.log = log;
+        }
+
+        @Override
+        public void beforeCheckpoint(Context<? extends Resource> context) throws InterruptedException {
+            log.add("before " + name);
+            Thread.sleep(60_000);
+        }
+
+        @Override
+        public void afterRestore(Context<? extends Resource> context) {
+            log.add("after " + name);
+        }
+    }
+
+    public void testDeadline() throws Exception {
+        List<String> log = newLog();
+        DeadlineContext<Resource> context = new DeadlineContext<>(100, 10_000, TimeUnit.MILLISECONDS);
+        Resource a = new Recorder("a", log);
+        Resource slow = new Sleeper("slow", log);
+        Resource b = new Recorder("b", log);
+        context.register(a);
+        context.register(slow);
+        context.register(b);
+        try {
+            context.beforeCheckpoint(null);
+            fail("Should throw CheckpointException");
+        } catch (CheckpointException e) {
+            assertEquals(e.getSuppressed().length, 1);
+            Throwable timeout = e.getSuppressed()[0];
+            assertTrue(timeout instanceof TimeoutException);
+            assertTrue(timeout.getMessage().contains(slow.toString()));
+        }
+        context.afterRestore(null);
+        assertEquals(log, Arrays.asList("before b", "before slow", "before a", "after a", "after slow", "after b"));
+    }
+
+    public void testDeadlineTotal() throws Exception {
+        List<String> log = newLog();
+        DeadlineContext<Resource> context = new DeadlineContext<>(10_000, 100, TimeUnit.MILLISECONDS);
+        Resource a = new Recorder("a", log);
+        Resource slow = new Sleeper("slow", log);
+        context.register(a);
+        context.register(slow);
+        try {
+            context.beforeCheckpoint(null);
+            fail("Should throw CheckpointException");
+        } catch (CheckpointException e) {
+            assertEquals(e.getSuppressed().length, 2);
+        }
+        context.afterRestore(null);
+        // Resource not notified about checkpoint is not notified about restore
+        assertEquals(log, Arrays.asList("before slow", "after slow"));
+    }
+
+    public void testDeadlineInterrupted() throws Exception {
+        List<String> log = newLog();
+        DeadlineContext<Resource> context = new DeadlineContext<>(10_000, 10_000, TimeUnit.MILLISECONDS);
+        Resource a = new Recorder("a", log);
+        Resource slow = new Sleeper("slow", log);
+        context.register(a);
+        context.register(slow);
+        Thread notifying = Thread.currentThread();
+        CompletableFuture.runAsync(() -> {
+            while (log.isEmpty()) {
+                Thread.yield();
+            }
+            notifying.interrupt();
+        });
+        try {
+            context.beforeCheckpoint(null);
+            fail("Should throw CheckpointException");
+        } catch (CheckpointException e) {
+            // The remaining Resource is not notified, so it adds no exception
+            assertEquals(e.getSuppressed().length, 1);
+            assertTrue(e.getSuppressed()[0] instanceof InterruptedException);
+        }
+        assertTrue(Thread.interrupted());
+        context.afterRestore(null);
+        assertEquals(log, Arrays.asList("before slow", "after slow"));
+    }
+
+    private static class AsyncRecorder implements AsyncResource {
+        private final String name;
+        private final List<String> log;
+        private final CompletableFuture<Void> checkpoint = new CompletableFuture<>();
+        private final Exception onRestore;
+
+        AsyncRecorder(String name, List<String> log, Exception onRestore) {
+            this.name = name;
+            this.log = log;
+            this.onRestore = onRestore;
+        }
+
+        @Override
+        public CompletionStage<Void> beforeCheckpointAsync(Context<? extends Resource> context) {
+            log.add("start before " + name);
+            return checkpoint;
+        }
+
+        @Override
+        public CompletionStage<Void> afterRestoreAsync(Context<? extends Resource> context) {
+            return CompletableFuture.runAsync(() -> {
+                log.add("after " + name);
+                if (onRestore != null) {
+                    throw new CompletionException(onRestore);
+                }
+            });
+        }
+    }
+
+    public void testAsync() throws Exception {
+        List<String> log = newLog();
+        Exception e1 = new Exception("e1");
+        AsyncContext<Resource> context = new AsyncContext<>();
+        AsyncRecorder a = new AsyncRecorder("a", log, e1);
+        AsyncRecorder b = new AsyncRecorder("b", log, null);
+        Resource sync = new Recorder("sync", log);
+        context.register(a);
+        context.register(b);
+        context.register(sync);
+
+        // All notifications are started before any completes
+        CompletableFuture.runAsync(() -> {
+            while (log.size() < 3) {
+                Thread.yield();
+            }
+            a.checkpoint.complete(null);
+            b.checkpoint.complete(null);
+        });
+        context.beforeCheckpoint(null);
+        assertEquals(log, Arrays.asList("before sync", "start before b", "start before a"));
+        try {
+            context.afterRestore(null);
+            fail("Should throw RestoreException");
+        } catch (RestoreException e) {
+            assertEquals(Arrays.asList(e.getSuppressed()), Collections.singletonList(e1));
+        }
+        assertTrue(log.containsAll(Arrays.asList("after a", "after b", "after sync")));
+    }
+
+    public void testAsyncInOtherContext() throws Exception {
+        List<String> log = newLog();
+        AggregatingContext<Resource> context = new AggregatingContext<>();
+        AsyncRecorder a = new AsyncRecorder("a", log, null);
+        context.register(a);
+        a.checkpoint.complete(null);
+        context.beforeCheckpoint(null);
+        context.afterRestore(null);
+        assertEquals(log, Arrays.asList("start before a", "after a"));
+    }
+}
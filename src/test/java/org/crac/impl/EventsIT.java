@@ -0,0 +1,89 @@
+package org.crac.impl;
+
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.testng.Assert.*;
+
+// Runs by the failsafe plugin against the packaged multi-release jar, so the Java 11 layer is tested.
+// The tests are compiled for Java 8, so jdk.jfr is used reflectively.
+@Test
+public class EventsIT {
+
+    private static URL eventsClass() {
+        URL url = Events.class.getResource("Events.class");
+        assertNotNull(url);
+        if (!"jar".equals(url.getProtocol())) {
+            throw new SkipException("needs the packaged jar, got " + url);
+        }
+        return url;
+    }
+
+    public void testMultiReleaseJar() {
+        URL url = eventsClass();
+        boolean java11 = !System.getProperty("java.specification.version").startsWith("1.");
+        assertEquals(url.getPath().contains("/META-INF/versions/11/"), java11, url.toString());
+    }
+
+    public void testEvents() throws Exception {
+        if (!eventsClass().getPath().contains("/META-INF/versions/11/")) {
+            throw new SkipException("needs the Java 11 layer");
+        }
+        Class<?> recordingClass;
+        try {
+            recordingClass = Class.forName("jdk.jfr.Recording");
+        } catch (ClassNotFoundException e) {
+            throw new SkipException("needs jdk.jfr");
+        }
+        Object recording = recordingClass.getConstructor().newInstance();
+        recordingClass.getMethod("enable", String.class).invoke(recording, "org.crac.Notification");
+        recordingClass.getMethod("enable", String.class).invoke(recording, "org.crac.NotificationPhase");
+        recordingClass.getMethod("start").invoke(recording);
+
+        // Notifications of a phase from several threads, as with parallel contexts
+        int threads = 4;
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            new Thread(() -> {
+                Object event = Events.beginNotification(NotificationStats.CHECKPOINT);
+                Events.endNotification(event, NotificationStats.CHECKPOINT, EventsIT.class);
+                done.countDown();
+            }).start();
+        }
+        done.await();
+        Object event = Events.beginNotification(NotificationStats.RESTORE);
+        Events.endNotification(event, NotificationStats.RESTORE, EventsIT.class);
+        Events.checkpointRestoreCompleted();
+
+        recordingClass.getMethod("stop").invoke(recording);
+        Path file = Files.createTempFile("crac-events", ".jfr");
+        try {
+            recordingClass.getMethod("dump", Path.class).invoke(recording, file);
+            List<String> names = new ArrayList<>();
+            List<Integer> resources = new ArrayList<>();
+            Method readAllEvents = Class.forName("jdk.jfr.consumer.RecordingFile").getMethod("readAllEvents", Path.class);
+            for (Object e : (List<?>) readAllEvents.invoke(null, file)) {
+                Object type = e.getClass().getMethod("getEventType").invoke(e);
+                String name = (String) type.getClass().getMethod("getName").invoke(type);
+                names.add(name);
+                if (name.equals("org.crac.NotificationPhase")) {
+                    resources.add((Integer) e.getClass().getMethod("getInt", String.class).invoke(e, "resources"));
+                }
+            }
+            assertEquals(names.stream().filter("org.crac.Notification"::equals).count(), threads + 1, names.toString());
+            resources.sort(null);
+            assertEquals(resources.toString(), "[1, " + threads + "]");
+        } finally {
+            Files.delete(file);
+            recordingClass.getMethod("close").invoke(recording);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package org.crac.impl;
+
+import org.crac.management.ResourceTiming;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+@Test
+public class NotificationStatsTest {
+
+    public void testNotificationStats() throws Exception {
+        if (!NotificationStats.enabled) {
+            assertEquals(NotificationStats.start(), 0);
+            throw new SkipException("needs -Dorg.crac.NotificationStats=true");
+        }
+        class Timed {
+        }
+        // A restore notification ends the previous phase, so the checkpoint phase starts anew
+        NotificationStats.record(NotificationStats.RESTORE, Timed.class, NotificationStats.start());
+        long start = NotificationStats.start();
+        Thread.sleep(50);
+        // Overlapping notifications, as with parallel contexts, are not summed
+        NotificationStats.record(NotificationStats.CHECKPOINT, Timed.class, start);
+        NotificationStats.record(NotificationStats.CHECKPOINT, Timed.class, start);
+        long phaseTime = NotificationStats.getCheckpointNotificationTime();
+        assertTrue(phaseTime >= 50_000_000L, Long.toString(phaseTime));
+        assertTrue(NotificationStats.getRestoreNotificationTime() >= 0);
+
+        ResourceTiming timing = null;
+        for (ResourceTiming t : NotificationStats.getResourceTimings()) {
+            if (t.getResourceClass().equals(Timed.class.getName()) && t.getPhase().equals("beforeCheckpoint")) {
+                timing = t;
+            }
+        }
+        assertNotNull(timing);
+        assertEquals(timing.getCount(), 2);
+        assertTrue(timing.getTotalTime() >= 100_000_000L);
+        // The phase spans both notifications once, while the total counts each of them
+        assertTrue(phaseTime < timing.getTotalTime(), phaseTime + " " + timing.getTotalTime());
+        assertTrue(timing.getMaxTime() >= 50_000_000L);
+        long histogramCount = 0;
+        for (long c : timing.getHistogram()) {
+            histogramCount += c;
+        }
+        assertEquals(histogramCount, 2);
+    }
+}
@@ -0,0 +1,180 @@
+package org.crac.impl;
+
+import org.crac.Context;
+import org.crac.Resource;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.*;
+
+@Test
+public class ProxyTest {
+
+    public void testDetect() {
+        assertNull(Proxy.detect("none"));
+        Proxy sim = Proxy.detect("org.crac.sim");
+        assertNotNull(sim);
+        assertTrue(sim.isCompat());
+        // A missing package falls back to the JDK
+        Proxy fallback = Proxy.detect("org.crac.missing");
+        assertTrue(fallback == null || !fallback.isCompat());
+    }
+
+    @SuppressWarnings("deprecation")
+    public void testInstance() {
+        Proxy proxy = Proxy.getInstance();
+        // Set once detected
+        assertSame(Proxy.instance, proxy);
+        String compat = System.getProperty("org.crac.Core.Compat");
+        assertEquals(Proxy.isDisabled(), "none".equals(compat));
+        if (Proxy.isDisabled()) {
+            assertNull(Proxy.getInstance());
+        } else if ("org.crac.sim".equals(compat)) {
+            assertTrue(Proxy.getInstance().isCompat());
+        }
+    }
+
+    // Initializing Proxy does not detect the implementation
+    public void testLazyDetection() throws Exception {
+        URL classes = Proxy.class.getProtectionDomain().getCodeSource().getLocation();
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{classes},
+                ClassLoader.getSystemClassLoader().getParent())) {
+            Class<?> proxy = Class.forName(Proxy.class.getName(), true, loader);
+            proxy.getMethod("isDisabled").invoke(null);
+            assertNull(proxy.getField("instance").get(null));
+            Object detected = proxy.getMethod("getInstance").invoke(null);
+            assertSame(proxy.getField("instance").get(null), detected);
+        }
+    }
+
+    public void testNoCheckpointRestore() throws Exception {
+        Proxy proxy = Proxy.detect("org.crac.impl.nocheckpoint");
+        assertNotNull(proxy);
+        assertTrue(proxy.isCompat());
+        assertThrows(UnsupportedOperationException.class, proxy::checkpointRestore);
+    }
+
+    private static final class Idle implements Resource {
+        @Override
+        public void beforeCheckpoint(Context<? extends Resource> context) {
+        }
+
+        @Override
+        public void afterRestore(Context<? extends Resource> context) {
+        }
+    }
+
+    // A concurrent registration of the same Resource returns only once it is registered
+    // in the implementation, and registers it anew if that failed
+    public void testConcurrentRegistration() throws Exception {
+        Proxy proxy = Proxy.detect("org.crac.impl.nocheckpoint");
+        assertNotNull(proxy);
+        Idle resource = new Idle();
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger registrations = new AtomicInteger();
+        org.crac.impl.nocheckpoint.Context.onRegister = r -> {
+            if (registrations.incrementAndGet() == 1) {
+                entered.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                throw new IllegalStateException("failed");
+            }
+        };
+        try {
+            CompletableFuture<ResourceWrapper> first = CompletableFuture.supplyAsync(() -> proxy.register(resource, false));
+            entered.await();
+            CompletableFuture<ResourceWrapper> second = CompletableFuture.supplyAsync(() -> proxy.register(resource, false));
+            Thread.sleep(50);
+            assertFalse(second.isDone());
+            release.countDown();
+            assertThrows(CompletionException.class, first::join);
+            ResourceWrapper wrapper = second.get(10, TimeUnit.SECONDS);
+            assertEquals(registrations.get(), 2);
+            assertSame(ResourceWrapper.find(resource), wrapper);
+            wrapper.unregister();
+        } finally {
+            org.crac.impl.nocheckpoint.Context.onRegister = r -> { };
+        }
+    }
+
+    public void testResolvePublic() throws Throwable {
+        MethodHandle parseInt = Proxy.resolve(Integer.class.getMethod("parseInt", String.class), null);
+        assertEquals((int) parseInt.invokeExact("42"), 42);
+        MethodHandle length = Proxy.resolve(String.class.getMethod("length"), "abc");
+        assertEquals((int) length.invokeExact(), 3);
+        // Exceptions are not wrapped
+        assertThrows(NumberFormatException.class, () -> {
+            int unused = (int) parseInt.invokeExact("x");
+        });
+    }
+
+    private static final class Hidden {
+        private final String prefix;
+
+        Hidden(String prefix) {
+            this.prefix = prefix;
+        }
+
+        private String concat(String s) throws IOException {
+            if (s == null) {
+                throw new IOException("null");
+            }
+            return prefix + s;
+        }
+    }
+
+    public void testResolveReflective() throws Throwable {
+        Method concat = Hidden.class.getDeclaredMethod("concat", String.class);
+        // Not linkable via the public lookup, so dispatched reflectively
+        MethodHandle handle = Proxy.resolve(concat, new Hidden("a"));
+        assertEquals((String) handle.invokeExact("b"), "ab");
+        IOException e = expectThrows(IOException.class, () -> {
+            String unused = (String) handle.invokeExact((String) null);
+        });
+        assertEquals(e.getMessage(), "null");
+    }
+
+    // Class initialization of the implementation and of RestoreEpoch started from two threads
+    // must not wait on each other. Fresh class loaders make each round initialize the classes anew.
+    public void testConcurrentInitialization() throws Exception {
+        URL classes = Proxy.class.getProtectionDomain().getCodeSource().getLocation();
+        for (int i = 0; i < 20; i++) {
+            try (URLClassLoader loader = new URLClassLoader(new URL[]{classes},
+                    ClassLoader.getSystemClassLoader().getParent())) {
+                CountDownLatch start = new CountDownLatch(1);
+                CountDownLatch done = new CountDownLatch(2);
+                for (String[] call : new String[][]{{"org.crac.Context", "isImplemented"},
+                        {"org.crac.util.RestoreEpoch", "get"}}) {
+                    Thread thread = new Thread(() -> {
+                        try {
+                            start.await();
+                            Class.forName(call[0], true, loader).getMethod(call[1]).invoke(null);
+                            done.countDown();
+                        } catch (Exception e) {
+                            throw new RuntimeException(e);
+                        }
+                    });
+                    // A deadlocked thread must not keep the JVM alive
+                    thread.setDaemon(true);
+                    thread.start();
+                }
+                start.countDown();
+                assertTrue(done.await(10, TimeUnit.SECONDS), "class initialization deadlock");
+            }
+        }
+    }
+}
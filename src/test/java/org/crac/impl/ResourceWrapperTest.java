@@ -0,0 +1,115 @@
+package org.crac.impl;
+
+import org.crac.Context;
+import org.crac.Resource;
+import org.testng.annotations.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.testng.Assert.*;
+
+@Test
+public class ResourceWrapperTest {
+    private static final int THREADS = 8;
+    private static final int PER_THREAD = 20_000;
+
+    private static class NopResource implements Resource {
+        @Override
+        public void beforeCheckpoint(Context<? extends Resource> context) {
+        }
+
+        @Override
+        public void afterRestore(Context<? extends Resource> context) {
+        }
+    }
+
+    // Resources registered by other tests, e.g. by executors, are collected at any time, so the global count
+    // may drop while a test runs, and is only checked as a bound. The test's own wrappers are checked one by one.
+    public void testConcurrentRegistration() throws Exception {
+        int initial = ResourceWrapper.registeredCount();
+        List<Resource> strong = registerConcurrently();
+        List<WeakReference<ResourceWrapper>> wrappers = new ArrayList<>(strong.size());
+        for (Resource r : strong) {
+            ResourceWrapper wrapper = ResourceWrapper.find(r);
+            assertNotNull(wrapper);
+            wrappers.add(new WeakReference<>(wrapper));
+        }
+        int count = ResourceWrapper.registeredCount();
+        assertTrue(count >= THREADS * PER_THREAD && count <= initial + THREADS * PER_THREAD, "count " + count);
+
+        // Wrappers of collected resources are expunged: the registry holds them strongly until then
+        strong = null;
+        while (wrappers.stream().anyMatch(w -> w.get() != null)) {
+            ResourceWrapper.registeredCount();
+            System.gc();
+            Thread.yield();
+        }
+        assertTrue(ResourceWrapper.registeredCount() <= initial);
+    }
+
+    public void testIdentity() {
+        // Equal, but distinct resources are registered separately
+        class EqualResource extends NopResource {
+            @Override
+            public boolean equals(Object obj) {
+                return obj instanceof EqualResource;
+            }
+
+            @Override
+            public int hashCode() {
+                return 0;
+            }
+        }
+        Resource r1 = new EqualResource();
+        Resource r2 = new EqualResource();
+        int initial = ResourceWrapper.registeredCount();
+
+        ResourceWrapper w1 = new ResourceWrapper(r1).addToRegistry();
+        assertSame(new ResourceWrapper(r1).addToRegistry(), w1);
+        ResourceWrapper w2 = new ResourceWrapper(r2).addToRegistry();
+        assertNotSame(w2, w1);
+        assertTrue(ResourceWrapper.registeredCount() <= initial + 2);
+        assertSame(ResourceWrapper.find(r1), w1);
+
+        w1.unregister();
+        assertNull(ResourceWrapper.find(r1));
+        assertNull(w1.get());
+        assertSame(ResourceWrapper.find(r2), w2);
+        w2.unregister();
+        assertNull(ResourceWrapper.find(r2));
+        assertTrue(ResourceWrapper.registeredCount() <= initial);
+    }
+
+    private static List<Resource> registerConcurrently() throws Exception {
+        CyclicBarrier start = new CyclicBarrier(THREADS);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<List<Resource>>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    List<Resource> resources = new ArrayList<>(PER_THREAD);
+                    start.await();
+                    for (int i = 0; i < PER_THREAD; i++) {
+                        Resource r = new NopResource();
+                        resources.add(r);
+                        new ResourceWrapper(r).addToRegistry();
+                    }
+                    return resources;
+                }));
+            }
+            List<Resource> all = new ArrayList<>();
+            for (Future<List<Resource>> f : futures) {
+                all.addAll(f.get());
+            }
+            return all;
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
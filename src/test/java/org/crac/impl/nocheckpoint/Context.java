@@ -0,0 +1,17 @@
+package org.crac.impl.nocheckpoint;
+
+import java.util.function.Consumer;
+
+public class Context {
+    private static final Context global = new Context();
+
+    public static volatile Consumer<Resource> onRegister = r -> { };
+
+    public static Context getGlobalContext() {
+        return global;
+    }
+
+    public void register(Resource resource) {
+        onRegister.accept(resource);
+    }
+}
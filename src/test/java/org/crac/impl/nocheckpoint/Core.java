@@ -0,0 +1,4 @@
+package org.crac.impl.nocheckpoint;
+
+public class Core {
+}
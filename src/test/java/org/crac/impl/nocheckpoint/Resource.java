@@ -0,0 +1,7 @@
+package org.crac.impl.nocheckpoint;
+
+public interface Resource {
+    void beforeCheckpoint(Context context) throws Exception;
+
+    void afterRestore(Context context) throws Exception;
+}
@@ -0,0 +1,3 @@
+// An implementation without Core.checkpointRestore, where checkpoint is possible only by other means.
+// Registration in its global Context can be intercepted by tests.
+package org.crac.impl.nocheckpoint;
@@ -0,0 +1,100 @@
+package org.crac.management;
+
+import org.crac.CheckpointException;
+import org.crac.Context;
+import org.crac.Resource;
+import org.crac.impl.Proxy;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.ObjectName;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.testng.Assert.*;
+
+@Test
+public class ManagementTest {
+
+    public void testCompatSelection() {
+        CRaCMXBean bean = CRaCMXBean.getCRaCMXBean();
+        if (Proxy.isDisabled()) {
+            // The JDK is not probed, even if it implements CRaC
+            assertTrue(bean instanceof NoImpl);
+            assertThrows(UnsupportedOperationException.class, bean::checkpointRestore);
+        } else if (Proxy.getInstance() != null && Proxy.getInstance().isCompat()) {
+            assertTrue(bean instanceof CRaCImpl);
+            assertTrue(bean.isImplemented());
+        }
+        assertEquals(bean.isImplemented(), Proxy.getInstance() != null);
+        assertTrue(CRaCMXBeanHolder.create(null) == null || !CRaCMXBeanHolder.create(null).isImplemented());
+    }
+
+    public void testMBean() throws Exception {
+        MBeanServer server = MBeanServerFactory.newMBeanServer();
+        CRaCMXBeanHolder.register(new NoImpl(), server);
+        ObjectName name = new ObjectName(CRaCMXBeanHolder.OBJECT_NAME);
+        List<String> attributes = Arrays.stream(server.getMBeanInfo(name).getAttributes())
+                .map(MBeanAttributeInfo::getName)
+                .collect(Collectors.toList());
+        assertTrue(attributes.containsAll(Arrays.asList("RestoreTime", "RegisteredResourceCount", "ResourceTimings")));
+        assertFalse(attributes.contains("CRaCMXBean"));
+        assertEquals(server.getAttribute(name, "Implemented"), false);
+        assertEquals(server.getAttribute(name, "RestoreTime"), -1L);
+    }
+
+    public void testNotifications() throws Exception {
+        CRaCMXBean bean = CRaCMXBean.getCRaCMXBean();
+        if (!(bean instanceof CRaCImpl) || !Proxy.getInstance().isCompat()) {
+            throw new SkipException("needs the simulation");
+        }
+        List<String> events = Collections.synchronizedList(new ArrayList<>());
+        long[] restoreTime = { -2 };
+        Exception[] failure = { new Exception("failure") };
+        Resource resource = new Resource() {
+            @Override
+            public void beforeCheckpoint(Context<? extends Resource> context) throws Exception {
+                events.add("before");
+                if (failure[0] != null) {
+                    throw failure[0];
+                }
+            }
+
+            @Override
+            public void afterRestore(Context<? extends Resource> context) {
+                // Registered after the bean, but reads the new restore time
+                restoreTime[0] = bean.getRestoreTime();
+                events.add("after");
+            }
+        };
+        Context.getGlobalContext().register(resource);
+        NotificationListener listener = (n, handback) -> events.add(n.getType());
+        ((NotificationEmitter) bean).addNotificationListener(listener, null, null);
+        try {
+            long start = System.currentTimeMillis();
+            assertThrows(CheckpointException.class, bean::checkpointRestore);
+            assertEquals(events, Arrays.asList("before", CRaCMXBean.CHECKPOINT_STARTED,
+                    CRaCMXBean.RESTORE_COMPLETED, "after", CRaCMXBean.CHECKPOINT_FAILED));
+            assertTrue(restoreTime[0] >= start, "restore time " + restoreTime[0]);
+
+            failure[0] = null;
+            events.clear();
+            start = System.currentTimeMillis();
+            bean.checkpointRestore();
+            assertEquals(events, Arrays.asList("before", CRaCMXBean.CHECKPOINT_STARTED,
+                    CRaCMXBean.RESTORE_COMPLETED, "after"));
+            assertTrue(restoreTime[0] >= start, "restore time " + restoreTime[0]);
+        } finally {
+            failure[0] = null;
+            ((NotificationEmitter) bean).removeNotificationListener(listener);
+        }
+    }
+}
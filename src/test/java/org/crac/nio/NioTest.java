@@ -0,0 +1,147 @@
+package org.crac.nio;
+
+import org.crac.util.RestoreEpoch;
+import org.testng.annotations.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.testng.Assert.*;
+
+@Test
+public class NioTest {
+
+    public void testDirectBufferPool() throws Exception {
+        DirectBufferPool pool = new DirectBufferPool(1000, 4096, 16384);
+        DirectBufferPool.PooledBuffer first = pool.acquire(100);
+        assertTrue(first.buffer().isDirect());
+        assertEquals(first.buffer().capacity(), 1024);
+        assertEquals(pool.getReservedBytes(), 16384);
+        first.buffer().putInt(42).order(ByteOrder.LITTLE_ENDIAN);
+        first.close();
+        assertThrows(IllegalStateException.class, first::close);
+
+        // reused from the thread cache, cleared
+        DirectBufferPool.PooledBuffer again = pool.acquire(1024);
+        assertSame(again, first);
+        assertEquals(again.buffer().position(), 0);
+        assertEquals(again.buffer().order(), ByteOrder.BIG_ENDIAN);
+
+        List<DirectBufferPool.PooledBuffer> buffers = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            buffers.add(pool.acquire(3000));
+        }
+        assertEquals(buffers.get(39).buffer().capacity(), 4096);
+        assertEquals(pool.getReservedBytes(), 16384 * 11);
+        buffers.forEach(DirectBufferPool.PooledBuffer::close);
+
+        // the slab of the acquired buffer is kept
+        pool.getResource().beforeCheckpoint(null);
+        assertEquals(pool.getReservedBytes(), 16384);
+        again.buffer().putLong(0, 1L);
+        again.close();
+
+        pool.setRestoreSlabs(true);
+        pool.getResource().afterRestore(null);
+        assertEquals(pool.getReservedBytes(), 16384 * 11);
+        pool.getResource().beforeCheckpoint(null);
+        assertEquals(pool.getReservedBytes(), 0);
+
+        DirectBufferPool.PooledBuffer large = pool.acquire(10000);
+        assertEquals(large.buffer().capacity(), 10000);
+        large.close();
+        assertEquals(pool.getReservedBytes(), 0);
+        ByteBuffer buffer = pool.acquire(0).buffer();
+        assertEquals(buffer.capacity(), 1024);
+        assertEquals(pool.getReservedBytes(), 16384);
+    }
+
+    public void testMappedRegion() throws Exception {
+        Path file = Files.createTempFile("region", ".dat");
+        try {
+            Files.write(file, new byte[8192]);
+            MappedRegion region = new MappedRegion(file, FileChannel.MapMode.READ_WRITE, 4096, 4096);
+            assertFalse(region.isMapped());
+            MappedRegion.Mapping mapping;
+            try (MappedRegion.Access access = region.acquire()) {
+                mapping = access.getMapping();
+                assertEquals(mapping.getEpoch(), RestoreEpoch.get());
+                access.buffer().putLong(0, 42L);
+            }
+            assertTrue(region.isMapped());
+
+            // Each access is closed once, so a double close does not release another access
+            MappedRegion.Access access = region.acquire();
+            MappedRegion.Access other = region.acquire();
+            assertSame(other.getMapping(), access.getMapping());
+            access.close();
+            assertThrows(IllegalStateException.class, access::close);
+            assertThrows(IllegalStateException.class, access::buffer);
+            assertEquals(other.buffer().getLong(0), 42L);
+            other.close();
+
+            region.getResource().beforeCheckpoint(null);
+            assertFalse(region.isMapped());
+            assertFalse(mapping.isValid());
+            assertThrows(IllegalStateException.class, mapping::buffer);
+            assertEquals(ByteBuffer.wrap(Files.readAllBytes(file)).getLong(4096), 42L);
+            region.getResource().afterRestore(null);
+
+            try (MappedRegion.Access again = region.acquire()) {
+                assertNotSame(again.getMapping(), mapping);
+                assertEquals(again.buffer().getLong(0), 42L);
+            }
+            region.getResource().beforeCheckpoint(null);
+            region.getResource().afterRestore(null);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    public void testMappedRegionCheckpoint() throws Exception {
+        Path file = Files.createTempFile("region", ".dat");
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            Files.write(file, new byte[]{ 1, 2, 3, 4 });
+            MappedRegion region = new MappedRegion(file, FileChannel.MapMode.READ_ONLY, 0, 4,
+                    50, TimeUnit.MILLISECONDS);
+            MappedRegion.Access access = region.acquire();
+            assertTrue(access.buffer().isReadOnly());
+            assertEquals(access.buffer().get(3), 4);
+
+            // The checkpoint fails if accesses do not complete in time, and the region stays mapped
+            assertThrows(TimeoutException.class, () -> region.getResource().beforeCheckpoint(null));
+            assertTrue(access.getMapping().isValid());
+            assertEquals(access.buffer().get(0), 1);
+            access.close();
+            region.getResource().afterRestore(null);
+            assertTrue(region.isMapped());
+
+            // Accesses during the checkpoint wait until restore
+            region.getResource().beforeCheckpoint(null);
+            assertFalse(region.isMapped());
+            Future<Byte> blocked = executor.submit(() -> {
+                try (MappedRegion.Access a = region.acquire()) {
+                    return a.buffer().get(2);
+                }
+            });
+            assertThrows(TimeoutException.class, () -> blocked.get(100, TimeUnit.MILLISECONDS));
+            region.getResource().afterRestore(null);
+            assertEquals((byte) blocked.get(), 3);
+            assertTrue(region.isMapped());
+        } finally {
+            executor.shutdownNow();
+            Files.delete(file);
+        }
+    }
+}
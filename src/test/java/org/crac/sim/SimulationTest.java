@@ -0,0 +1,108 @@
+package org.crac.sim;
+
+import org.crac.management.CRaCMXBean;
+import org.crac.util.HeapTrimming;
+import org.crac.util.Registration;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.testng.Assert.*;
+
+@Test
+public class SimulationTest {
+
+    private static class Recorder implements Resource {
+        private final String name;
+        private final List<String> events;
+        private Exception exception;
+
+        Recorder(String name, List<String> events, Exception exception) {
+            this.name = name;
+            this.events = events;
+            this.exception = exception;
+        }
+
+        @Override
+        public void beforeCheckpoint(Context<? extends Resource> context) throws Exception {
+            events.add("before " + name);
+            if (exception != null) {
+                throw exception;
+            }
+        }
+
+        @Override
+        public void afterRestore(Context<? extends Resource> context) throws Exception {
+            events.add("after " + name);
+            if (exception != null) {
+                throw exception;
+            }
+        }
+    }
+
+    public void testOrderAndExceptions() {
+        List<String> events = new ArrayList<>();
+        Exception first = new Exception("first");
+        CheckpointException nested = new CheckpointException();
+        Exception second = new Exception("second");
+        nested.addSuppressed(second);
+        Recorder a = new Recorder("a", events, first);
+        Recorder b = new Recorder("b", events, null);
+        Recorder c = new Recorder("c", events, nested);
+        Core.getGlobalContext().register(a);
+        Core.getGlobalContext().register(b);
+        Core.getGlobalContext().register(c);
+
+        try {
+            Core.checkpointRestore();
+            fail("Should throw CheckpointException");
+        } catch (CheckpointException e) {
+            // nested CheckpointException is flattened, restore exceptions are added
+            assertEquals(Arrays.asList(e.getSuppressed()), Arrays.asList(second, first, first, nested));
+        } catch (RestoreException e) {
+            fail("Should throw CheckpointException");
+        } finally {
+            // the global context is shared with other tests
+            a.exception = null;
+            c.exception = null;
+        }
+        assertEquals(events, Arrays.asList("before c", "before b", "before a", "after a", "after b", "after c"));
+        assertTrue(Core.getLastCheckpointTime() >= 0);
+        assertTrue(Core.getLastDowntime() >= 0);
+        assertTrue(Core.getLastRestoreTime() >= 0);
+    }
+
+    public void testHeapTrimming() throws Exception {
+        if (!HeapTrimming.isEnabled()) {
+            throw new SkipException("heap trimming not enabled");
+        }
+        List<String> events = new ArrayList<>();
+        org.crac.Resource resource = new org.crac.Resource() {
+            @Override
+            public void beforeCheckpoint(org.crac.Context<? extends org.crac.Resource> context) {
+                events.add("before");
+            }
+
+            @Override
+            public void afterRestore(org.crac.Context<? extends org.crac.Resource> context) {
+                events.add("after");
+            }
+        };
+        org.crac.Context.getGlobalContext().register(resource);
+        Registration cache = HeapTrimming.addCache(() -> events.add("clear"));
+        CRaCMXBean bean = CRaCMXBean.getCRaCMXBean();
+        try {
+            bean.checkpointRestore();
+        } finally {
+            cache.close();
+        }
+        // the trimming runs after all Resources registered through org.crac
+        assertEquals(events, Arrays.asList("before", "clear", "after"));
+        assertTrue(bean.getHeapUsedBeforeTrim() > 0);
+        assertTrue(bean.getHeapUsedAfterTrim() > 0);
+        assertTrue(bean.getHeapCommittedAfterTrim() >= bean.getHeapUsedAfterTrim());
+    }
+}
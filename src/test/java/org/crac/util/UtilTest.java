@@ -0,0 +1,139 @@
+package org.crac.util;
+
+import org.crac.Context;
+import org.crac.Resource;
+import org.crac.impl.Proxy;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.testng.Assert.*;
+
+@Test
+public class UtilTest {
+
+    public void testEnvironmentDelta() {
+        Map<String, String> env = new HashMap<>();
+        env.put("KEEP", "1");
+        env.put("CHANGE", "a");
+        env.put("REMOVE", "x");
+        EnvironmentSnapshot before = new EnvironmentSnapshot(4, 1024, -1, env, "build");
+        env.put("CHANGE", "b");
+        env.remove("REMOVE");
+        env.put("ADD", "y");
+        EnvironmentSnapshot after = new EnvironmentSnapshot(16, 1024, 4096, env, "prod");
+
+        EnvironmentDelta delta = new EnvironmentDelta(before, after);
+        assertEquals(delta.getChanges(), EnumSet.of(EnvironmentDelta.Change.PROCESSORS,
+                EnvironmentDelta.Change.CONTAINER_MEMORY_LIMIT, EnvironmentDelta.Change.ENVIRONMENT,
+                EnvironmentDelta.Change.HOSTNAME));
+        assertEquals(delta.getChangedVariables(), new HashSet<>(Arrays.asList("CHANGE", "REMOVE", "ADD")));
+        assertFalse(delta.hasChanged(EnvironmentDelta.Change.MAX_MEMORY));
+
+        EnvironmentSnapshot current = EnvironmentSnapshot.capture();
+        assertTrue(new EnvironmentDelta(current, current).isEmpty());
+        assertEquals(current.getAvailableProcessors(), Runtime.getRuntime().availableProcessors());
+        assertEquals(new EnvironmentDelta(before, new EnvironmentSnapshot(4, 1024, -1,
+                Collections.emptyMap(), "build")).getChangedVariables().size(), 3);
+    }
+
+    public void testRestoreEpoch() throws Exception {
+        if (Proxy.getInstance() == null || !Proxy.getInstance().isCompat()) {
+            throw new SkipException("needs the simulation");
+        }
+        long epoch = RestoreEpoch.get();
+        List<Long> seen = new ArrayList<>();
+        Resource resource = new Resource() {
+            @Override
+            public void beforeCheckpoint(Context<? extends Resource> context) {
+                seen.add(RestoreEpoch.get());
+            }
+
+            @Override
+            public void afterRestore(Context<? extends Resource> context) {
+                seen.add(RestoreEpoch.get());
+            }
+        };
+        Context.getGlobalContext().register(resource);
+        CompletableFuture<Long> next = RestoreEpoch.onNextRestore();
+        assertFalse(next.isDone());
+
+        org.crac.sim.Core.checkpointRestore();
+        // Unchanged on checkpoint, incremented before other Resources are notified about restore
+        assertEquals(seen, Arrays.asList(epoch, epoch + 1));
+        assertEquals(RestoreEpoch.get(), epoch + 1);
+        assertEquals(next.getNow(-1L), Long.valueOf(epoch + 1));
+    }
+
+    private static final class CountingResource implements Resource {
+        int restores;
+
+        @Override
+        public void beforeCheckpoint(Context<? extends Resource> context) {
+        }
+
+        @Override
+        public void afterRestore(Context<? extends Resource> context) {
+            restores++;
+        }
+    }
+
+    public void testGlobalRegistry() throws Exception {
+        if (Proxy.getInstance() == null || !Proxy.getInstance().isCompat()) {
+            CountingResource resource = new CountingResource();
+            // Without an implementation there is nothing to register with
+            GlobalRegistry.register(resource).close();
+            assertFalse(GlobalRegistry.unregister(resource));
+            throw new SkipException("needs the simulation");
+        }
+        assertThrows(NullPointerException.class, () -> GlobalRegistry.register(null));
+
+        // The Resource stays registered until the last of its handles is closed
+        CountingResource resource = new CountingResource();
+        Registration first = GlobalRegistry.register(resource);
+        Registration second = GlobalRegistry.register(resource);
+        org.crac.sim.Core.checkpointRestore();
+        assertEquals(resource.restores, 1);
+        first.close();
+        // Closing a handle again does not release the other one
+        first.close();
+        org.crac.sim.Core.checkpointRestore();
+        assertEquals(resource.restores, 2);
+        second.close();
+        org.crac.sim.Core.checkpointRestore();
+        assertEquals(resource.restores, 2);
+        assertFalse(GlobalRegistry.unregister(resource));
+
+        // Registration through Context.register is not undone by closing the handles
+        CountingResource pinned = new CountingResource();
+        Context.getGlobalContext().register(pinned);
+        GlobalRegistry.register(pinned).close();
+        org.crac.sim.Core.checkpointRestore();
+        assertEquals(pinned.restores, 1);
+        assertTrue(GlobalRegistry.unregister(pinned));
+        org.crac.sim.Core.checkpointRestore();
+        assertEquals(pinned.restores, 1);
+
+        // Explicit unregistration does not wait for the handles
+        CountingResource unregistered = new CountingResource();
+        Registration registration = GlobalRegistry.register(unregistered);
+        assertTrue(GlobalRegistry.unregister(unregistered));
+        org.crac.sim.Core.checkpointRestore();
+        assertEquals(unregistered.restores, 0);
+        registration.close();
+        // Registered anew after being unregistered
+        Registration again = GlobalRegistry.register(unregistered);
+        org.crac.sim.Core.checkpointRestore();
+        assertEquals(unregistered.restores, 1);
+        again.close();
+    }
+}
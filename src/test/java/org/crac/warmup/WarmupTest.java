@@ -0,0 +1,84 @@
+package org.crac.warmup;
+
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.testng.Assert.*;
+
+@Test
+public class WarmupTest {
+
+    public void testWarmUp() {
+        AtomicLong runs = new AtomicLong();
+        WarmupDriver driver = new WarmupDriver(200, 30_000, TimeUnit.MILLISECONDS)
+                .addTask(runs::incrementAndGet)
+                .addTask(() -> Long.toString(runs.get()).hashCode());
+        WarmupReport report = driver.warmUp();
+        assertEquals(report.getIterations(), runs.get());
+        assertTrue(report.getIterations() > 0);
+        if (report.getCompilationTime() >= 0) {
+            assertTrue(report.getTotalCompilationTime() >= report.getCompilationTime());
+        }
+        if (report.getCompilationTime() >= 0 || report.getCodeCacheUsed() >= 0) {
+            // The tasks are trivial, so the compilation settles well before the limit
+            assertTrue(report.isSteadyStateReached(), report.toString());
+            assertTrue(report.getWarmupTime() >= 200 && report.getWarmupTime() < 30_000, report.toString());
+        }
+    }
+
+    public void testWarmUpLimit() {
+        WarmupReport report = new WarmupDriver(60, 0, TimeUnit.SECONDS).addTask(() -> { }).warmUp();
+        assertFalse(report.isSteadyStateReached());
+        assertEquals(report.getIterations(), 0);
+
+        report = new WarmupDriver(60_000, 100, TimeUnit.MILLISECONDS).addTask(() -> { }).warmUp();
+        assertFalse(report.isSteadyStateReached());
+        assertTrue(report.getWarmupTime() >= 100, report.toString());
+        assertTrue(report.getIterations() > 0);
+    }
+
+    public void testTaskFailure() {
+        WarmupDriver driver = new WarmupDriver(0, 1, TimeUnit.SECONDS).addTask(() -> {
+            throw new IllegalStateException("training");
+        });
+        assertThrows(IllegalStateException.class, driver::warmUp);
+    }
+
+    static class Preloaded {
+        static volatile boolean initialized;
+    }
+
+    static class PreloadedInit {
+        static {
+            Preloaded.initialized = true;
+        }
+    }
+
+    public void testClassPreloader() throws Exception {
+        Path file = Files.createTempFile("classes", ".lst");
+        try {
+            Files.write(file, Arrays.asList("# comment", "java/lang/Object id: 0", "@lambda-proxy x",
+                    "", "org/crac/warmup/WarmupTest$PreloadedInit", "org.crac.warmup.Missing"));
+            assertEquals(ClassPreloader.readClassList(file), Arrays.asList("java.lang.Object",
+                    "org.crac.warmup.WarmupTest$PreloadedInit", "org.crac.warmup.Missing"));
+            ClassPreloader preloader = new ClassPreloader(ClassPreloader.readClassList(file),
+                    getClass().getClassLoader(), true, 2);
+            assertFalse(Preloaded.initialized);
+            preloader.beforeCheckpoint(null);
+            assertTrue(Preloaded.initialized);
+            assertEquals(preloader.getLoadedCount(), 2);
+            assertEquals(preloader.getFailedCount(), 1);
+
+            ClassPreloader.writeClassList(file, new Class<?>[]{ String.class, int[].class, WarmupTest.class });
+            assertEquals(ClassPreloader.readClassList(file), Arrays.asList("java.lang.String",
+                    "org.crac.warmup.WarmupTest"));
+        } finally {
+            Files.delete(file);
+        }
+    }
+}